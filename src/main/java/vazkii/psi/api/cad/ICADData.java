@@ -59,4 +59,11 @@ public interface ICADData extends INBTSerializable<CompoundNBT> {
 	 * Serializes the CAD data to be synchronized
 	 */
 	CompoundNBT serializeForSynchronization();
+
+	/**
+	 * Gets the memory slots that were set since the last call, so only those get synchronized
+	 */
+	default int[] pollDirtyVectorSlots() {
+		return new int[0];
+	}
 }
@@ -11,20 +11,28 @@
 import com.mojang.blaze3d.matrix.MatrixStack;
 
 import net.minecraft.client.renderer.RenderType;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.text.ITextComponent;
+import net.minecraft.world.World;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 
 import vazkii.psi.api.spell.CompiledSpell;
+import vazkii.psi.api.spell.IBlockMutationBatch;
 import vazkii.psi.api.spell.ISpellCache;
 import vazkii.psi.api.spell.ISpellCompiler;
+import vazkii.psi.api.spell.ISpellProfiler;
+import vazkii.psi.api.spell.ISpellTracer;
+import vazkii.psi.api.spell.IWorldReadCache;
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.api.spell.SpellPiece;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * This is a dummy class. You'll never interact with it, it's just here so
@@ -63,11 +71,41 @@ public void delayContext(SpellContext context) {
 		// NO-OP
 	}
 
+	@Override
+	public void scheduleSpell(SpellContext context) {
+		context.cspell.executeNow(context);
+	}
+
+	@Override
+	public IBlockMutationBatch createBlockMutationBatch(World world, IWorldReadCache readCache) {
+		return null;
+	}
+
+	@Override
+	public IWorldReadCache createWorldReadCache(World world) {
+		return null;
+	}
+
 	@Override
 	public void setCrashData(CompiledSpell spell, SpellPiece piece) {
 		// NO-OP
 	}
 
+	@Override
+	public ISpellProfiler getSpellProfiler() {
+		return null;
+	}
+
+	@Override
+	public ISpellTracer getSpellTracer() {
+		return null;
+	}
+
+	@Override
+	public List<Entity> getEntitiesWithinAABB(World world, AxisAlignedBB area, Predicate<? super Entity> predicate) {
+		return world.getEntitiesWithinAABB(Entity.class, area, predicate);
+	}
+
 	@Override
 	@OnlyIn(Dist.CLIENT)
 	public void renderTooltip(MatrixStack ms, int x, int y, List<ITextComponent> tooltipData, int color, int color2, int width, int height) {
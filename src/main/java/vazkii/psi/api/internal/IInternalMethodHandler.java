@@ -11,20 +11,30 @@
 import com.mojang.blaze3d.matrix.MatrixStack;
 
 import net.minecraft.client.renderer.RenderType;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.text.ITextComponent;
+import net.minecraft.world.World;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 
 import vazkii.psi.api.spell.CompiledSpell;
+import vazkii.psi.api.spell.IBlockMutationBatch;
 import vazkii.psi.api.spell.ISpellCache;
 import vazkii.psi.api.spell.ISpellCompiler;
+import vazkii.psi.api.spell.ISpellProfiler;
+import vazkii.psi.api.spell.ISpellTracer;
+import vazkii.psi.api.spell.IWorldReadCache;
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.api.spell.SpellPiece;
 
+import javax.annotation.Nullable;
+
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface IInternalMethodHandler {
 
@@ -61,11 +71,49 @@ public interface IInternalMethodHandler {
 	 */
 	void delayContext(SpellContext context);
 
+	/**
+	 * Runs a spell context now, or later if the server is out of spell time for this tick.
+	 * Contexts of the same caster always run in the order they were scheduled.
+	 */
+	void scheduleSpell(SpellContext context);
+
+	/**
+	 * Creates a new block mutation batch for the given world. In most cases, you should use
+	 * {@link SpellContext#getBlockBatch(World)} instead.
+	 *
+	 * @param readCache a read cache to invalidate as blocks are changed through the batch, if any
+	 */
+	IBlockMutationBatch createBlockMutationBatch(World world, @Nullable IWorldReadCache readCache);
+
+	/**
+	 * Creates a new world read cache for the given world. In most cases, you should use
+	 * {@link SpellContext#getWorldCache(World)} instead.
+	 */
+	IWorldReadCache createWorldReadCache(World world);
+
 	/**
 	 * Sets the crash handler data, in case the spell hard-crashes.
 	 */
 	void setCrashData(CompiledSpell spell, SpellPiece piece);
 
+	/**
+	 * Gets the spell profiler, or null if profiling is turned off.
+	 */
+	@Nullable
+	ISpellProfiler getSpellProfiler();
+
+	/**
+	 * Gets the spell tracer, or null if tracing is turned off.
+	 */
+	@Nullable
+	ISpellTracer getSpellTracer();
+
+	/**
+	 * Gets the entities within the given area that match the predicate, sharing the chunk section scans
+	 * with the other entity queries made by spells this tick.
+	 */
+	List<Entity> getEntitiesWithinAABB(World world, AxisAlignedBB area, Predicate<? super Entity> predicate);
+
 	/**
 	 * Renders a tooltip with the specified colors at the given x,y position
 	 */
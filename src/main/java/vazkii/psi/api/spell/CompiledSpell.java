@@ -8,6 +8,7 @@
  */
 package vazkii.psi.api.spell;
 
+import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.Util;
 import net.minecraft.util.text.Style;
 import net.minecraft.util.text.TextFormatting;
@@ -15,8 +16,10 @@
 
 import vazkii.psi.api.PsiAPI;
 import vazkii.psi.api.internal.IPlayerData;
+import vazkii.psi.api.internal.Vector3;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Stack;
 
@@ -32,6 +35,18 @@ public class CompiledSpell {
 	public final Map<SpellPiece, CatchHandler> errorHandlers = new HashMap<>();
 	public final Map<SpellPiece, Action> actionMap = new HashMap<>();
 
+	/**
+	 * Values of pieces that were folded at compile time. These pieces are not in {@link #actions},
+	 * their values are put in the context before the spell is executed.
+	 */
+	public final Map<SpellPiece, Object> literals = new LinkedHashMap<>();
+
+	/**
+	 * Pieces that read an entity list straight from the selector it comes from, mapped to that selector.
+	 * The selectors are not in {@link #actions}, their results are never built.
+	 */
+	public final Map<SpellPiece, SpellPiece> fusedSelectors = new HashMap<>();
+
 	public Action currentAction;
 	public final boolean[][] spotsEvaluated;
 
@@ -48,22 +63,54 @@ public CompiledSpell(Spell source) {
 	 */
 	public boolean execute(SpellContext context) throws SpellRuntimeException {
 		IPlayerData data = PsiAPI.internalHandler.getDataForPlayer(context.caster);
-		while (!context.actions.isEmpty()) {
-			Action a = context.actions.pop();
-			currentAction = a;
+		ISpellProfiler profiler = PsiAPI.internalHandler.getSpellProfiler();
+		ISpellTracer tracer = PsiAPI.internalHandler.getSpellTracer();
+		// A spell resuming after a delay has fewer actions left, it was counted when it started
+		if (profiler != null && context.actions.size() == actions.size()) {
+			profiler.begin(this);
+		}
+		if (tracer != null) {
+			tracer.begin(this, context);
+		}
 
-			PsiAPI.internalHandler.setCrashData(this, a.piece);
-			a.execute(data, context);
-			PsiAPI.internalHandler.setCrashData(null, null);
+		try {
+			while (!context.actions.isEmpty()) {
+				Action a = context.actions.pop();
+				currentAction = a;
+
+				PsiAPI.internalHandler.setCrashData(this, a.piece);
+				if (profiler == null && tracer == null) {
+					a.execute(data, context);
+				} else {
+					long allocated = profiler == null ? 0 : profiler.getAllocatedBytes();
+					long start = System.nanoTime();
+					try {
+						a.execute(data, context);
+					} finally {
+						long time = System.nanoTime() - start;
+						if (profiler != null) {
+							profiler.record(this, a.piece, time, profiler.getAllocatedBytes() - allocated);
+						}
+						if (tracer != null) {
+							tracer.piece(context, a.piece, time);
+						}
+					}
+				}
+				PsiAPI.internalHandler.setCrashData(null, null);
 
-			currentAction = null;
+				currentAction = null;
 
-			if (context.stopped) {
-				return false;
-			}
+				if (context.stopped) {
+					return false;
+				}
 
-			if (context.delay > 0) {
-				return true;
+				if (context.delay > 0) {
+					return true;
+				}
+			}
+		} finally {
+			if (tracer != null) {
+				tracer.end(context);
 			}
 		}
 
@@ -71,17 +118,29 @@ public boolean execute(SpellContext context) throws SpellRuntimeException {
 	}
 
 	/**
+	 * Executes the spell on the server, or queues it for a later tick if the server
+	 * is over its spell budget for this one.
+	 *
 	 * @see #execute
 	 */
-	@SuppressWarnings("unchecked")
 	public void safeExecute(SpellContext context) {
 		if (context.caster.getEntityWorld().isRemote) {
 			return;
 		}
 
+		PsiAPI.internalHandler.scheduleSpell(context);
+	}
+
+	/**
+	 * Executes the spell right away, bypassing the scheduler. This is what the scheduler
+	 * calls, use {@link #safeExecute} instead.
+	 */
+	@SuppressWarnings("unchecked")
+	public void executeNow(SpellContext context) {
 		try {
 			if (context.actions == null) {
 				context.actions = (Stack<Action>) actions.clone();
+				loadLiterals(context);
 			}
 
 			if (context.cspell.execute(context)) {
@@ -98,6 +157,28 @@ public void safeExecute(SpellContext context) {
 		}
 	}
 
+	/**
+	 * Puts the values of all the pieces folded at compile time into the context.
+	 */
+	public void loadLiterals(SpellContext context) {
+		if (literals.isEmpty()) {
+			return;
+		}
+
+		IPlayerData data = PsiAPI.internalHandler.getDataForPlayer(context.caster);
+		for (Map.Entry<SpellPiece, Object> literal : literals.entrySet()) {
+			SpellPiece piece = literal.getKey();
+			Object value = literal.getValue();
+			context.evaluatedObjects[piece.x][piece.y] = value instanceof Vector3 ? ((Vector3) value).copy() : value;
+
+			// Folded pieces still count as executed for unlocking their group
+			ResourceLocation group = PsiAPI.getGroupForPiece(piece.getClass());
+			if (group != null && PsiAPI.getMainPieceForGroup(group) == piece.getClass()) {
+				data.markPieceExecuted(piece);
+			}
+		}
+	}
+
 	public boolean hasEvaluated(int x, int y) {
 		if (!SpellGrid.exists(x, y)) {
 			return false;
@@ -117,7 +198,16 @@ public Action(SpellPiece piece) {
 		public void execute(IPlayerData data, SpellContext context) throws SpellRuntimeException {
 			try {
 				data.markPieceExecuted(piece);
-				Object o = piece.execute(context);
+				Object o;
+				try {
+					o = piece.execute(context);
+				} finally {
+					context.flushBlockBatch();
+					if (piece.getPieceType().isTrick()) {
+						// Tricks may change the world in ways the read cache doesn't see
+						context.invalidateWorldCache();
+					}
+				}
 
 				Class<?> eval = piece.getEvaluationType();
 				if (eval != null && eval != Void.class) {
@@ -0,0 +1,56 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.api.spell;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * Collects the world changes made by a trick so they can be applied together. Get one through
+ * {@link SpellContext#getBlockBatch(World)}; it is flushed automatically when the trick finishes executing.<br>
+ * Block states are set immediately, but neighbor notifications are deferred to {@link #flush()}
+ * and block break effects are sent to clients in a single packet.
+ */
+public interface IBlockMutationBatch {
+
+	/**
+	 * Gets the world this batch applies changes to.
+	 */
+	World getWorld();
+
+	/**
+	 * Sets a block state, like {@link World#setBlockState(BlockPos, BlockState, int)}.
+	 * If flags contains 1, the neighbor notification is deferred until {@link #flush()}.
+	 */
+	boolean setBlockState(BlockPos pos, BlockState state, int flags);
+
+	/**
+	 * Sets a block state with the default flags (3), like {@link World#setBlockState(BlockPos, BlockState)}.
+	 */
+	default boolean setBlockState(BlockPos pos, BlockState state) {
+		return setBlockState(pos, state, 3);
+	}
+
+	/**
+	 * Removes a block, like {@link World#removeBlock(BlockPos, boolean)}.
+	 */
+	boolean removeBlock(BlockPos pos, boolean isMoving);
+
+	/**
+	 * Plays the block break particles and sound, like {@code world.playEvent(2001, pos, Block.getStateId(state))}.
+	 */
+	void playBreakEffect(BlockPos pos, BlockState state);
+
+	/**
+	 * Applies all deferred neighbor notifications and sends all pending break effects.
+	 */
+	void flush();
+
+}
@@ -55,6 +55,10 @@ default boolean castableFromSocket() {
 		return false;
 	}
 
+	/**
+	 * Gets the spell in this acceptor. The returned spell may be shared with other stacks holding the
+	 * same spell, so it must not be modified. Use {@link Spell#copy()} for a spell that can be edited.
+	 */
 	@Nullable
 	default Spell getSpell() {
 		return null;
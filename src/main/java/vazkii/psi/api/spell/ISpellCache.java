@@ -21,4 +21,12 @@ public interface ISpellCache {
 	 */
 	CompiledSpell getCompiledSpell(Spell spell);
 
+	/**
+	 * Starts compiling the spell in the background, so it's already in the cache by the time it's
+	 * first cast. Call this when a spell is written to something it will be cast from.
+	 */
+	default void precompile(Spell spell) {
+		// NO-OP
+	}
+
 }
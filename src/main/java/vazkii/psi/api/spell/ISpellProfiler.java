@@ -0,0 +1,33 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.api.spell;
+
+/**
+ * Records how much time and memory the pieces of executed spells take.
+ * Only exists while profiling is turned on, see {@link vazkii.psi.api.internal.IInternalMethodHandler#getSpellProfiler()}.
+ */
+public interface ISpellProfiler {
+
+	/**
+	 * Gets the amount of bytes allocated by the current thread so far, or 0 if the JVM can't tell.
+	 */
+	long getAllocatedBytes();
+
+	/**
+	 * Records a single execution of a spell, before any of its pieces run. Not called again when a spell resumes
+	 * after a delay.
+	 */
+	void begin(CompiledSpell spell);
+
+	/**
+	 * Records a single execution of a piece.
+	 */
+	void record(CompiledSpell spell, SpellPiece piece, long nanos, long allocatedBytes);
+
+}
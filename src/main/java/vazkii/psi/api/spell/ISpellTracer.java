@@ -0,0 +1,32 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.api.spell;
+
+/**
+ * Records the inputs and piece outputs of executed spells so they can be replayed later.
+ * Only exists while tracing is turned on, see {@link vazkii.psi.api.internal.IInternalMethodHandler#getSpellTracer()}.
+ */
+public interface ISpellTracer {
+
+	/**
+	 * Called before a spell starts or resumes executing in the given context.
+	 */
+	void begin(CompiledSpell spell, SpellContext context);
+
+	/**
+	 * Called after a piece has executed, whether it succeeded or not.
+	 */
+	void piece(SpellContext context, SpellPiece piece, long nanos);
+
+	/**
+	 * Called once the spell stops executing in the given context, finished or delayed.
+	 */
+	void end(SpellContext context);
+
+}
@@ -0,0 +1,60 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.api.spell;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * Remembers the world reads made by a spell while it's being cast, so pieces looking at the same positions
+ * don't each go through the chunk lookup again. Get one through {@link SpellContext#getWorldCache(World)}.<br>
+ * Writes made through the context's {@link IBlockMutationBatch} invalidate the positions they touch, and the
+ * whole cache is dropped after every trick and at the end of the tick. Tricks that change the world directly
+ * in the middle of their execution should call {@link #invalidate(BlockPos)} for the positions they change.
+ */
+public interface IWorldReadCache {
+
+	/**
+	 * Gets the world this cache reads from.
+	 */
+	World getWorld();
+
+	/**
+	 * Gets a block state, like {@link World#getBlockState(BlockPos)}.
+	 */
+	BlockState getBlockState(BlockPos pos);
+
+	/**
+	 * Checks if there is a tile entity at a position, like {@code world.getTileEntity(pos) != null}.
+	 */
+	boolean hasTileEntity(BlockPos pos);
+
+	/**
+	 * Gets the light level at a position, like {@link World#getLight(BlockPos)}.
+	 */
+	int getLight(BlockPos pos);
+
+	/**
+	 * Checks if the player may change a block, like {@link World#isBlockModifiable(PlayerEntity, BlockPos)}.
+	 */
+	boolean isBlockModifiable(PlayerEntity player, BlockPos pos);
+
+	/**
+	 * Forgets what was read at a position and next to it, for when the block there changed.
+	 */
+	void invalidate(BlockPos pos);
+
+	/**
+	 * Forgets everything that was read.
+	 */
+	void invalidateAll();
+
+}
@@ -15,11 +15,13 @@
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.Hand;
 import net.minecraft.util.math.BlockRayTraceResult;
+import net.minecraft.world.World;
 
 import vazkii.psi.api.PsiAPI;
 import vazkii.psi.api.internal.MathHelper;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.CompiledSpell.Action;
+import vazkii.psi.api.spell.wrapper.EntityListWrapper;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -94,6 +96,9 @@ public final class SpellContext {
 	public final Object[][] evaluatedObjects = new Object[SpellGrid.GRID_SIZE][SpellGrid.GRID_SIZE];
 	public Stack<Action> actions = null;
 
+	public IBlockMutationBatch blockBatch = null;
+	public IWorldReadCache worldCache = null;
+
 	public boolean stopped = false;
 	public int delay = 0;
 	// End Runtime information ===============================================================
@@ -190,6 +195,65 @@ public void verifyEntity(Entity e) throws SpellRuntimeException {
 		}
 	}
 
+	/**
+	 * Verifies every entity in the list and checks that they're all in radius, so tricks affecting a whole list
+	 * can fail before changing any of it.
+	 */
+	public void verifyEntities(EntityListWrapper entities) throws SpellRuntimeException {
+		for (Entity e : entities) {
+			verifyEntity(e);
+			if (!isInRadius(e)) {
+				throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
+			}
+		}
+	}
+
+	/**
+	 * Gets the block mutation batch of the trick currently executing, creating it if needed.
+	 * Tricks that change many blocks should go through this instead of the world directly.
+	 * The batch is flushed once the trick is done.
+	 */
+	public IBlockMutationBatch getBlockBatch(World world) {
+		if (blockBatch != null && blockBatch.getWorld() != world) {
+			flushBlockBatch();
+		}
+		if (blockBatch == null) {
+			blockBatch = PsiAPI.internalHandler.createBlockMutationBatch(world, getWorldCache(world));
+		}
+		return blockBatch;
+	}
+
+	/**
+	 * Applies and discards the current block mutation batch, if there is one.
+	 */
+	public void flushBlockBatch() {
+		if (blockBatch != null) {
+			IBlockMutationBatch batch = blockBatch;
+			blockBatch = null;
+			batch.flush();
+		}
+	}
+
+	/**
+	 * Gets the world read cache of this cast, creating it if needed. Pieces that read blocks, light or
+	 * tile entities should go through this instead of the world directly, see {@link IWorldReadCache}.
+	 */
+	public IWorldReadCache getWorldCache(World world) {
+		if (worldCache == null || worldCache.getWorld() != world) {
+			worldCache = PsiAPI.internalHandler.createWorldReadCache(world);
+		}
+		return worldCache;
+	}
+
+	/**
+	 * Drops everything the world read cache of this cast remembers, if there is one.
+	 */
+	public void invalidateWorldCache() {
+		if (worldCache != null) {
+			worldCache.invalidateAll();
+		}
+	}
+
 	public int getTargetSlot() throws SpellRuntimeException {
 		int slot;
 		if (customTargetSlot) {
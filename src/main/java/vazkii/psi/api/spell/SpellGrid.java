@@ -18,6 +18,7 @@
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -44,6 +45,9 @@ public final class SpellGrid {
 	private boolean empty;
 	private int leftmost, rightmost, topmost, bottommost;
 
+	/** Resolved redirections, by cell and side. Filled in lazily, and dropped whenever the grid changes. */
+	private Redirection[][][] redirections;
+
 	@OnlyIn(Dist.CLIENT)
 	public void draw(MatrixStack ms, IRenderTypeBuffer buffers, int light) {
 		for (int i = 0; i < GRID_SIZE; i++) {
@@ -122,6 +126,7 @@ public void mirrorVertical() {
 		}
 
 		gridData = newGrid;
+		invalidateRedirections();
 	}
 
 	public void rotate(boolean ccw) {
@@ -156,6 +161,7 @@ public void rotate(boolean ccw) {
 		}
 
 		gridData = newGrid;
+		invalidateRedirections();
 	}
 
 	public boolean shift(SpellParam.Side side, boolean doit) {
@@ -187,6 +193,7 @@ public boolean shift(SpellParam.Side side, boolean doit) {
 			}
 
 			gridData = newGrid;
+			invalidateRedirections();
 			return true;
 		}
 		return false;
@@ -215,8 +222,45 @@ public SpellPiece getPieceAtSideWithRedirections(int x, int y, SpellParam.Side s
 		return getPieceAtSideWithRedirections(x, y, side, piece -> {});
 	}
 
-	/** @param walker a callback that incrementally gets called on each redirector reached */
+	/**
+	 * The result of following the redirections from a cell is only worked out once per revision of the grid, then
+	 * replayed to the walker from the table.
+	 *
+	 * @param walker a callback that incrementally gets called on each redirector reached
+	 */
 	public SpellPiece getPieceAtSideWithRedirections(int x, int y, SpellParam.Side side, SpellPieceConsumer walker) throws SpellCompilationException {
+		if (!exists(x, y)) {
+			return resolveRedirections(x, y, side, walker);
+		}
+
+		if (redirections == null) {
+			redirections = new Redirection[GRID_SIZE][GRID_SIZE][SpellParam.Side.values().length];
+		}
+
+		Redirection redirection = redirections[x][y][side.ordinal()];
+		if (redirection == null) {
+			List<SpellPiece> walked = new ArrayList<>();
+			SpellPiece target = null;
+			boolean loop = false;
+			try {
+				target = resolveRedirections(x, y, side, walked::add);
+			} catch (SpellCompilationException e) {
+				loop = true;
+			}
+			redirection = new Redirection(target, walked.toArray(new SpellPiece[0]), loop);
+			redirections[x][y][side.ordinal()] = redirection;
+		}
+
+		for (SpellPiece redirector : redirection.walked) {
+			walker.accept(redirector);
+		}
+		if (redirection.loop) {
+			throw new SpellCompilationException(SpellCompilationException.INFINITE_LOOP);
+		}
+		return redirection.target;
+	}
+
+	private SpellPiece resolveRedirections(int x, int y, SpellParam.Side side, SpellPieceConsumer walker) throws SpellCompilationException {
 		SpellPiece atSide;
 		Multimap<SpellPiece, SpellParam.Side> traversed = HashMultimap.create();
 		while ((atSide = getPieceAtSide(traversed, x, y, side)) instanceof IGenericRedirector) {
@@ -234,6 +278,14 @@ public SpellPiece getPieceAtSideWithRedirections(int x, int y, SpellParam.Side s
 		return atSide;
 	}
 
+	/**
+	 * Drops the resolved redirections. Has to be called after changing {@link #gridData} or the sides of a piece
+	 * in it directly; the methods on this class that change the grid already do.
+	 */
+	public void invalidateRedirections() {
+		redirections = null;
+	}
+
 	public SpellPiece getPieceAtSideSafely(int x, int y, SpellParam.Side side) {
 		int xp = x + side.offx;
 		int yp = y + side.offy;
@@ -264,6 +316,7 @@ public boolean isEmpty() {
 
 	public void readFromNBT(CompoundNBT cmp) {
 		gridData = new SpellPiece[GRID_SIZE][GRID_SIZE];
+		invalidateRedirections();
 
 		ListNBT list = cmp.getList(TAG_SPELL_LIST, 10);
 		int len = list.size();
@@ -318,6 +371,18 @@ public void writeToNBT(CompoundNBT cmp) {
 		cmp.put(TAG_SPELL_LIST, list);
 	}
 
+	private static final class Redirection {
+		private final SpellPiece target;
+		private final SpellPiece[] walked;
+		private final boolean loop;
+
+		private Redirection(SpellPiece target, SpellPiece[] walked, boolean loop) {
+			this.target = target;
+			this.walked = walked;
+			this.loop = loop;
+		}
+	}
+
 	// TODO: Put this somewhere nicer, or track down a library? Not sure where
 	@FunctionalInterface
 	public interface SpellPieceConsumer {
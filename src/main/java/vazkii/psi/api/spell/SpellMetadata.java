@@ -9,6 +9,10 @@
 package vazkii.psi.api.spell;
 
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.nbt.StringNBT;
+import net.minecraftforge.common.util.Constants;
 
 import vazkii.psi.api.cad.EnumCADStat;
 import vazkii.psi.api.cad.ICAD;
@@ -21,6 +25,11 @@
  */
 public final class SpellMetadata {
 
+	private static final String TAG_STATS = "stats";
+	private static final String TAG_MULTIPLIERS = "multipliers";
+	private static final String TAG_FLAGS = "flags";
+	private static final String TAG_ERRORS_SUPPRESSED = "errorsSuppressed";
+
 	private final Map<EnumSpellStat, Integer> stats = new EnumMap<>(EnumSpellStat.class);
 	private final Map<EnumSpellStat, Double> statMultipliers = new EnumMap<>(EnumSpellStat.class);
 	private Set<String> flags = new HashSet<>();
@@ -150,4 +159,38 @@ public boolean evaluateAgainst(ItemStack stack) {
 		return true;
 	}
 
+	public void writeToNBT(CompoundNBT cmp) {
+		CompoundNBT statsCmp = new CompoundNBT();
+		CompoundNBT multipliersCmp = new CompoundNBT();
+		for (EnumSpellStat stat : stats.keySet()) {
+			statsCmp.putInt(stat.name(), stats.get(stat));
+			multipliersCmp.putDouble(stat.name(), statMultipliers.get(stat));
+		}
+		cmp.put(TAG_STATS, statsCmp);
+		cmp.put(TAG_MULTIPLIERS, multipliersCmp);
+
+		ListNBT flagList = new ListNBT();
+		for (String flag : flags) {
+			flagList.add(StringNBT.valueOf(flag));
+		}
+		cmp.put(TAG_FLAGS, flagList);
+		cmp.putBoolean(TAG_ERRORS_SUPPRESSED, errorsSuppressed);
+	}
+
+	public void readFromNBT(CompoundNBT cmp) {
+		CompoundNBT statsCmp = cmp.getCompound(TAG_STATS);
+		CompoundNBT multipliersCmp = cmp.getCompound(TAG_MULTIPLIERS);
+		for (EnumSpellStat stat : stats.keySet()) {
+			stats.put(stat, statsCmp.getInt(stat.name()));
+			statMultipliers.put(stat, multipliersCmp.contains(stat.name()) ? multipliersCmp.getDouble(stat.name()) : 1.0);
+		}
+
+		flags.clear();
+		ListNBT flagList = cmp.getList(TAG_FLAGS, Constants.NBT.TAG_STRING);
+		for (int i = 0; i < flagList.size(); i++) {
+			flags.add(flagList.getString(i));
+		}
+		errorsSuppressed = cmp.getBoolean(TAG_ERRORS_SUPPRESSED);
+	}
+
 }
@@ -62,7 +62,7 @@ static void performDetonation(World world, PlayerEntity player, Entity center, P
 	}
 
 	static void performDetonation(World world, PlayerEntity player, Entity center, double range, Predicate<Entity> filter) {
-		List<Entity> charges = world.getEntitiesWithinAABB(Entity.class,
+		List<Entity> charges = PsiAPI.internalHandler.getEntitiesWithinAABB(world,
 				center.getBoundingBox().grow(range),
 				entity -> {
 					if (entity == null) {
@@ -38,6 +38,16 @@ public Object evaluate() {
 		return null;
 	}
 
+	/**
+	 * Whether this operator's result depends only on its params. If all of a pure operator's params
+	 * are constants (or other pure operators fed by constants), the compiler runs it once and stores
+	 * the result in {@link vazkii.psi.api.spell.CompiledSpell#literals}, so it's never executed when casting.
+	 * Operators that read the world, the caster or anything else from the context must not be pure.
+	 */
+	public boolean isPure() {
+		return false;
+	}
+
 	@Override
 	public Object execute(SpellContext context) throws SpellRuntimeException {
 		return null;
@@ -8,99 +8,160 @@
  */
 package vazkii.psi.api.spell.wrapper;
 
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
 import net.minecraft.entity.Entity;
 
 import javax.annotation.Nonnull;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Wrapper class for an Entity list.
  * Entities are guaranteed to be sorted deterministically; the list is guaranteed to have no null entities.
+ * <p>
+ * The UUIDs of the entities are kept next to them as two arrays of longs, so merging and searching lists
+ * compares plain numbers instead of going through every entity to its UUID.
  */
 public class EntityListWrapper implements Iterable<Entity> {
 
-	private final List<Entity> list;
+	private final Entity[] entities;
+	private final long[] most;
+	private final long[] least;
 
-	private EntityListWrapper(@Nonnull List<Entity> list) {
-		this.list = Objects.requireNonNull(list);
+	private EntityListWrapper(@Nonnull Entity[] entities, @Nonnull long[] most, @Nonnull long[] least) {
+		this.entities = Objects.requireNonNull(entities);
+		this.most = most;
+		this.least = least;
 	}
 
-	public static final EntityListWrapper EMPTY = new EntityListWrapper(Collections.emptyList());
+	public static final EntityListWrapper EMPTY = new EntityListWrapper(new Entity[0], new long[0], new long[0]);
 
 	/**
 	 * Constructs an EntityListWrapper from an arbitrary list of entities.
 	 */
 	public static EntityListWrapper make(@Nonnull List<Entity> list) {
-		List<Entity> copy = new ArrayList<>();
+		int size = 0;
+		Entity[] unsorted = new Entity[list.size()];
+		long[] unsortedMost = new long[unsorted.length];
+		long[] unsortedLeast = new long[unsorted.length];
 		for (Entity e : list) {
 			if (e != null) {
-				copy.add(e);
+				UUID uuid = e.getUniqueID();
+				unsorted[size] = e;
+				unsortedMost[size] = uuid.getMostSignificantBits();
+				unsortedLeast[size] = uuid.getLeastSignificantBits();
+				size++;
 			}
 		}
-		copy.sort(EntityListWrapper::compareEntities);
-		return new EntityListWrapper(copy);
+
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		// Stable, so entities with the same UUID keep their order like they did with List.sort
+		IntArrays.mergeSort(order, (a, b) -> compare(unsortedMost[a], unsortedLeast[a], unsortedMost[b], unsortedLeast[b]));
+
+		Entity[] entities = new Entity[size];
+		long[] most = new long[size];
+		long[] least = new long[size];
+		for (int i = 0; i < size; i++) {
+			entities[i] = unsorted[order[i]];
+			most[i] = unsortedMost[order[i]];
+			least[i] = unsortedLeast[order[i]];
+		}
+		return new EntityListWrapper(entities, most, least);
 	}
 
 	public static EntityListWrapper union(@Nonnull EntityListWrapper left, @Nonnull EntityListWrapper right) {
-		List<Entity> l1 = left.list, l2 = right.list;
-		List<Entity> entities = new ArrayList<>(l1.size() + l2.size());
+		Builder result = new Builder(left.size() + right.size());
 		int i = 0, j = 0;
-		while (i < l1.size() && j < l2.size()) {
-			int cmp = compareEntities(l1.get(i), l2.get(j));
+		while (i < left.size() && j < right.size()) {
+			int cmp = compare(left.most[i], left.least[i], right.most[j], right.least[j]);
 			if (cmp == 0) {
 				i++;
 				continue;
 			}
-			entities.add(cmp < 0 ? l1.get(i++) : l2.get(j++));
+			if (cmp < 0) {
+				result.add(left, i++);
+			} else {
+				result.add(right, j++);
+			}
 		}
-		entities.addAll(l1.subList(i, l1.size()));
-		entities.addAll(l2.subList(j, l2.size()));
-		return new EntityListWrapper(entities);
+		result.addRange(left, i, left.size());
+		result.addRange(right, j, right.size());
+		return result.build();
 	}
 
 	public static EntityListWrapper exclusion(@Nonnull EntityListWrapper list, @Nonnull EntityListWrapper remove) {
-		List<Entity> result = new ArrayList<>();
-		List<Entity> search = remove.list;
-		for (Entity e : list) {
-			if (Collections.binarySearch(search, e, EntityListWrapper::compareEntities) < 0) {
-				result.add(e);
+		Builder result = new Builder(list.size());
+		int j = 0;
+		for (int i = 0; i < list.size(); i++) {
+			while (j < remove.size() && compare(remove.most[j], remove.least[j], list.most[i], list.least[i]) < 0) {
+				j++;
+			}
+			if (j == remove.size() || compare(remove.most[j], remove.least[j], list.most[i], list.least[i]) != 0) {
+				result.add(list, i);
 			}
 		}
 
-		return new EntityListWrapper(result);
+		return result.build();
 	}
 
 	public static EntityListWrapper intersection(@Nonnull EntityListWrapper left, @Nonnull EntityListWrapper right) {
-		List<Entity> result = new ArrayList<>();
-		List<Entity> search = right.list;
-		for (Entity e : left) {
-			if (Collections.binarySearch(search, e, EntityListWrapper::compareEntities) >= 0) {
-				result.add(e);
+		Builder result = new Builder(Math.min(left.size(), right.size()));
+		int j = 0;
+		for (int i = 0; i < left.size(); i++) {
+			while (j < right.size() && compare(right.most[j], right.least[j], left.most[i], left.least[i]) < 0) {
+				j++;
+			}
+			if (j < right.size() && compare(right.most[j], right.least[j], left.most[i], left.least[i]) == 0) {
+				result.add(left, i);
 			}
 		}
 
-		return new EntityListWrapper(result);
+		return result.build();
 	}
 
-	//TODO this can probably be implemented lazily with a wrapper-list but w/e
 	public static EntityListWrapper withAdded(@Nonnull EntityListWrapper base, @Nonnull Entity toAdd) {
-		List<Entity> list = new ArrayList<>(base.list);
-		int index = Collections.binarySearch(list, toAdd, EntityListWrapper::compareEntities);
-		if (index < 0) {
-			list.add(~index, toAdd);
+		UUID uuid = toAdd.getUniqueID();
+		int index = base.indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+		if (index >= 0) {
+			return base;
 		}
-		return new EntityListWrapper(list);
+
+		int at = ~index;
+		int size = base.size();
+		Entity[] entities = new Entity[size + 1];
+		long[] most = new long[size + 1];
+		long[] least = new long[size + 1];
+		System.arraycopy(base.entities, 0, entities, 0, at);
+		System.arraycopy(base.most, 0, most, 0, at);
+		System.arraycopy(base.least, 0, least, 0, at);
+		entities[at] = toAdd;
+		most[at] = uuid.getMostSignificantBits();
+		least[at] = uuid.getLeastSignificantBits();
+		System.arraycopy(base.entities, at, entities, at + 1, size - at);
+		System.arraycopy(base.most, at, most, at + 1, size - at);
+		System.arraycopy(base.least, at, least, at + 1, size - at);
+		return new EntityListWrapper(entities, most, least);
 	}
 
 	public static EntityListWrapper withRemoved(@Nonnull EntityListWrapper base, @Nonnull Entity toRemove) {
-		List<Entity> list = new ArrayList<>(base.list);
-		list.remove(toRemove);
-		return new EntityListWrapper(list);
+		UUID uuid = toRemove.getUniqueID();
+		int index = base.indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+		if (index < 0 || !base.entities[index].equals(toRemove)) {
+			return base;
+		}
+
+		Builder result = new Builder(base.size() - 1);
+		result.addRange(base, 0, index);
+		result.addRange(base, index + 1, base.size());
+		return result.build();
 	}
 
 	/**
@@ -110,32 +171,105 @@ public static int compareEntities(Entity l, Entity r) {
 		return l.getUniqueID().compareTo(r.getUniqueID());
 	}
 
+	/**
+	 * Compares two UUIDs given as their halves, the same way {@link UUID#compareTo(UUID)} does.
+	 */
+	private static int compare(long mostL, long leastL, long mostR, long leastR) {
+		int cmp = Long.compare(mostL, mostR);
+		return cmp != 0 ? cmp : Long.compare(leastL, leastR);
+	}
+
+	/**
+	 * Binary searches for the entity with the given UUID.
+	 *
+	 * @return its index, or {@code -(insertion point) - 1} if it's not in the list
+	 */
+	private int indexOf(long mostBits, long leastBits) {
+		int low = 0;
+		int high = entities.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compare(most[mid], least[mid], mostBits, leastBits);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	public boolean contains(@Nonnull Entity entity) {
+		UUID uuid = entity.getUniqueID();
+		return indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) >= 0;
+	}
+
 	/**
 	 * Returns the underlying list for this ELW. Unsafe, as clients are able to modify the list so that it doesn't
 	 * maintain its guarantees.
 	 */
 	@Deprecated
 	private List<Entity> unwrap() {
-		return list;
+		return Arrays.asList(entities);
 	}
 
 	public int size() {
-		return list.size();
+		return entities.length;
 	}
 
 	public Entity get(int index) {
-		return list.get(index);
+		return entities[index];
 	}
 
 	@Override
 	public String toString() {
-		return list.toString();
+		return Arrays.toString(entities);
 	}
 
 	@Nonnull
 	@Override
 	public Iterator<Entity> iterator() {
-		return list.iterator();
+		return Arrays.asList(entities).iterator();
+	}
+
+	/**
+	 * Collects entries of already sorted lists, in order.
+	 */
+	private static class Builder {
+		private final Entity[] entities;
+		private final long[] most;
+		private final long[] least;
+		private int size;
+
+		private Builder(int capacity) {
+			entities = new Entity[capacity];
+			most = new long[capacity];
+			least = new long[capacity];
+		}
+
+		private void add(EntityListWrapper from, int index) {
+			entities[size] = from.entities[index];
+			most[size] = from.most[index];
+			least[size] = from.least[index];
+			size++;
+		}
+
+		private void addRange(EntityListWrapper from, int start, int end) {
+			int length = end - start;
+			System.arraycopy(from.entities, start, entities, size, length);
+			System.arraycopy(from.most, start, most, size, length);
+			System.arraycopy(from.least, start, least, size, length);
+			size += length;
+		}
+
+		private EntityListWrapper build() {
+			if (size == entities.length) {
+				return new EntityListWrapper(entities, most, least);
+			}
+			return new EntityListWrapper(Arrays.copyOf(entities, size), Arrays.copyOf(most, size), Arrays.copyOf(least, size));
+		}
 	}
 
 }
@@ -0,0 +1,109 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.client.core.handler;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+import vazkii.psi.api.cad.EnumCADComponent;
+import vazkii.psi.api.cad.ICAD;
+import vazkii.psi.api.cad.ICADColorizer;
+import vazkii.psi.common.item.ItemCAD;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches spell colors on the client. Colors are remembered per stack for the current frame, since
+ * some colorizers change over time, and the colorizers in CADs are only read from NBT again when
+ * the CAD's dye compound changes. Only used on the render thread, nothing here is synchronized.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class ColorCache {
+
+	private static final String TAG_DYE = ICAD.TAG_COMPONENT_PREFIX + EnumCADComponent.DYE.name();
+	private static final int MAX_DYES = 256;
+
+	private static final Reference2IntOpenHashMap<ItemStack> cadColors = new Reference2IntOpenHashMap<>();
+	private static final Reference2IntOpenHashMap<ItemStack> colorizerColors = new Reference2IntOpenHashMap<>();
+	private static float frame = Float.NaN;
+
+	/** Dye compounds of CADs to the colorizers read from them */
+	@SuppressWarnings("serial")
+	private static final Map<CompoundNBT, ItemStack> dyes = new LinkedHashMap<CompoundNBT, ItemStack>(16, 0.75F, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<CompoundNBT, ItemStack> eldest) {
+			return size() > MAX_DYES;
+		}
+
+	};
+
+	private ColorCache() {}
+
+	private static void checkFrame() {
+		if (frame != ClientTickHandler.total) {
+			frame = ClientTickHandler.total;
+			cadColors.clear();
+			colorizerColors.clear();
+		}
+	}
+
+	public static int getCADColor(ItemStack cad) {
+		checkFrame();
+		if (cadColors.containsKey(cad)) {
+			return cadColors.getInt(cad);
+		}
+
+		int color;
+		if (cad.getItem() instanceof ItemCAD) {
+			color = getColorizerColor(getDye(cad));
+		} else {
+			color = ((ICAD) cad.getItem()).getSpellColor(cad);
+		}
+		cadColors.put(cad, color);
+		return color;
+	}
+
+	public static int getColorizerColor(ItemStack colorizer) {
+		if (colorizer.isEmpty() || !(colorizer.getItem() instanceof ICADColorizer)) {
+			return ICADColorizer.DEFAULT_SPELL_COLOR;
+		}
+
+		checkFrame();
+		if (colorizerColors.containsKey(colorizer)) {
+			return colorizerColors.getInt(colorizer);
+		}
+
+		int color = ((ICADColorizer) colorizer.getItem()).getColor(colorizer);
+		colorizerColors.put(colorizer, color);
+		return color;
+	}
+
+	private static ItemStack getDye(ItemStack cad) {
+		CompoundNBT tag = cad.getTag();
+		if (tag == null || !tag.contains(TAG_DYE)) {
+			return ItemStack.EMPTY;
+		}
+
+		CompoundNBT cmp = tag.getCompound(TAG_DYE);
+		ItemStack dye = dyes.get(cmp);
+		if (dye == null) {
+			dye = cmp.isEmpty() ? ItemStack.EMPTY : ItemStack.read(cmp);
+			// Keyed by a copy, the CAD's own compound changes when the dye is swapped
+			dyes.put(cmp.copy(), dye);
+		}
+		return dye;
+	}
+
+}
@@ -234,7 +234,7 @@ public static void drawPsiBar(MatrixStack ms, MainWindow res, float pticks) {
 			offStr2 = -23;
 		}
 
-		int color = cad.getSpellColor(cadStack);
+		int color = ColorCache.getCADColor(cadStack);
 		RenderSystem.color4f(PsiRenderHelper.r(color) / 255F,
 				PsiRenderHelper.g(color) / 255F,
 				PsiRenderHelper.b(color) / 255F, 1F);
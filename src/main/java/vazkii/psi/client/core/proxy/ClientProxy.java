@@ -8,6 +8,9 @@
  */
 package vazkii.psi.client.core.proxy;
 
+import com.mojang.blaze3d.systems.RenderSystem;
+
+import net.minecraft.advancements.Advancement;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.entity.player.ClientPlayerEntity;
 import net.minecraft.client.renderer.BufferBuilder;
@@ -39,6 +42,7 @@
 import vazkii.psi.api.cad.ICADColorizer;
 import vazkii.psi.api.spell.SpellPiece;
 import vazkii.psi.client.core.handler.ClientTickHandler;
+import vazkii.psi.client.core.handler.ColorCache;
 import vazkii.psi.client.core.handler.ColorHandler;
 import vazkii.psi.client.core.handler.KeybindHandler;
 import vazkii.psi.client.core.handler.ShaderHandler;
@@ -125,7 +129,8 @@ public boolean hasAdvancement(ResourceLocation advancement, PlayerEntity playerE
 			return clientPlayerEntity.connection.getAdvancementManager().getAdvancementList().getAdvancement(advancement) != null;
 		} else if (playerEntity instanceof ServerPlayerEntity) {
 			ServerPlayerEntity serverPlayerEntity = (ServerPlayerEntity) playerEntity;
-			return serverPlayerEntity.getServer().getAdvancementManager().getAdvancement(advancement) != null && serverPlayerEntity.getAdvancements().getProgress(serverPlayerEntity.getServer().getAdvancementManager().getAdvancement(advancement)).isDone();
+			Advancement adv = serverPlayerEntity.getServer().getAdvancementManager().getAdvancement(advancement);
+			return adv != null && serverPlayerEntity.getAdvancements().getProgress(adv).isDone();
 		}
 		return false;
 	}
@@ -157,12 +162,19 @@ public int getClientRenderDistance() {
 
 	@Override
 	public int getColorForCAD(ItemStack cadStack) {
+		// The cache isn't thread safe, and the integrated server asks for colors too
+		if (RenderSystem.isOnRenderThread()) {
+			return ColorCache.getCADColor(cadStack);
+		}
 		ICAD icad = (ICAD) cadStack.getItem();
 		return icad.getSpellColor(cadStack);
 	}
 
 	@Override
 	public int getColorForColorizer(ItemStack colorizer) {
+		if (RenderSystem.isOnRenderThread()) {
+			return ColorCache.getColorizerColor(colorizer);
+		}
 		if (colorizer.isEmpty() || !(colorizer.getItem() instanceof ICADColorizer)) {
 			return ICADColorizer.DEFAULT_SPELL_COLOR;
 		}
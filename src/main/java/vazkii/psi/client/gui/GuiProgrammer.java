@@ -503,6 +503,7 @@ public void pushState(boolean wipeRedo) {
 	}
 
 	public void onSpellChanged(boolean nameOnly) {
+		spell.grid.invalidateRedirections();
 		if (programmer != null) {
 			if (!spectator) {
 				MessageSpellModified message = new MessageSpellModified(programmer.getPos(), spell);
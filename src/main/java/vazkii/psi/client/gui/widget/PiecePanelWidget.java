@@ -26,7 +26,6 @@
 
 import vazkii.psi.api.PsiAPI;
 import vazkii.psi.api.spell.EnumPieceType;
-import vazkii.psi.api.spell.SpellParam;
 import vazkii.psi.api.spell.SpellPiece;
 import vazkii.psi.api.spell.programmer.ProgrammerPopulateEvent;
 import vazkii.psi.client.gui.GuiProgrammer;
@@ -36,8 +35,8 @@
 import vazkii.psi.common.spell.constant.PieceConstantNumber;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -52,6 +51,8 @@ public class PiecePanelWidget extends Widget implements IRenderable, IGuiEventLi
 	public int page = 0;
 	private static final int PIECES_PER_PAGE = 25;
 	public final List<GuiButtonSpellPiece> visibleButtons = new ArrayList<>();
+	private final List<GuiButtonSpellPiece> pieceButtons = new ArrayList<>();
+	private PieceSearchIndex searchIndex;
 
 	public PiecePanelWidget(int x, int y, int width, int height, String message, GuiProgrammer programmer) {
 		super(x, y, width, height, ITextComponent.getTextComponentOrEmpty(message));
@@ -181,6 +182,7 @@ public void populatePanelButtons() {
 				spellPieceButton.visible = false;
 				spellPieceButton.active = false;
 				panelButtons.add(spellPieceButton);
+				pieceButtons.add(spellPieceButton);
 				visibleButtons.add(spellPieceButton);
 			}
 
@@ -214,6 +216,10 @@ public void populatePanelButtons() {
 	}
 
 	public void updatePanelButtons() {
+		if (searchIndex == null) {
+			searchIndex = new PieceSearchIndex(pieceButtons);
+		}
+
 		panelCursor = 0;
 		visibleButtons.clear();
 		parent.getButtons().forEach(button -> {
@@ -223,25 +229,41 @@ public void updatePanelButtons() {
 			}
 		});
 
-		HashMap<Class<? extends SpellPiece>, Integer> pieceRankings = new HashMap<>();
-
 		String text = searchField.getText().toLowerCase().trim();
 		boolean noSearchTerms = text.isEmpty();
 
-		parent.getButtons().forEach(button -> {
-			if (button instanceof GuiButtonSpellPiece) {
-				SpellPiece piece = ((GuiButtonSpellPiece) button).getPiece();
-
-				if (noSearchTerms) {
-					visibleButtons.add((GuiButtonSpellPiece) button);
-				} else {
-					int rank = ranking(text, piece);
-					if (rank > 0) {
-						pieceRankings.put(piece.getClass(), rank);
-						visibleButtons.add((GuiButtonSpellPiece) button);
-					}
-				}
-			} else if (button instanceof GuiButtonPage) {
+		List<GuiButtonSpellPiece> indexed = searchIndex.getButtons();
+		Integer[] order = new Integer[indexed.size()];
+		int count = 0;
+		int[] ranks = noSearchTerms ? null : searchIndex.rank(text);
+		for (int i = 0; i < order.length; i++) {
+			if (noSearchTerms || ranks[i] > 0) {
+				order[count++] = i;
+			}
+		}
+
+		Comparator<Integer> comparator;
+		if (noSearchTerms) {
+			comparator = Comparator.comparing(searchIndex::getSortingName);
+		} else {
+			comparator = Comparator.comparingInt((Integer i) -> -ranks[i]);
+			comparator = comparator.thenComparing(searchIndex::getSortingName);
+		}
+
+		Arrays.sort(order, 0, count, comparator);
+		for (int i = 0; i < count; i++) {
+			visibleButtons.add(indexed.get(order[i]));
+		}
+
+		GuiButtonSpellPiece constantPiece = searchIndex.getConstantButton();
+		if (constantPiece != null && (!text.isEmpty() && text.length() <= 5 && (text.matches("^-?\\d+(?:\\.\\d*)?") || text.matches("^-?\\d*(?:\\.\\d+)?")))) {
+			visibleButtons.remove(constantPiece);
+			((PieceConstantNumber) constantPiece.getPiece()).valueStr = text;
+			visibleButtons.add(0, constantPiece);
+		}
+
+		for (Button button : panelButtons) {
+			if (button instanceof GuiButtonPage) {
 				GuiButtonPage page = (GuiButtonPage) button;
 				if (page.isRight() && this.page < getPageCount() - 1) {
 					button.x = x + width - 22;
@@ -256,28 +278,6 @@ public void updatePanelButtons() {
 					button.active = true;
 				}
 			}
-		});
-
-		Comparator<GuiButtonSpellPiece> comparator;
-
-		if (noSearchTerms) {
-			comparator = Comparator.comparing(GuiButtonSpellPiece::getPieceSortingName);
-		} else {
-			comparator = Comparator.comparingInt((p) -> -pieceRankings.get(p.getPiece().getClass()));
-			comparator = comparator.thenComparing(GuiButtonSpellPiece::getPieceSortingName);
-		}
-
-		visibleButtons.sort(comparator);
-		if ((!text.isEmpty() && text.length() <= 5 && (text.matches("^-?\\d+(?:\\.\\d*)?") || text.matches("^-?\\d*(?:\\.\\d+)?")))) {
-			GuiButtonSpellPiece constantPiece = (GuiButtonSpellPiece) parent.getButtons().stream().filter(el -> {
-				if (el instanceof GuiButtonSpellPiece) {
-					return ((GuiButtonSpellPiece) el).getPiece() instanceof PieceConstantNumber;
-				}
-				return false;
-			}).findFirst().orElse(null);
-			visibleButtons.remove(constantPiece);
-			((PieceConstantNumber) constantPiece.getPiece()).valueStr = text;
-			visibleButtons.add(0, constantPiece);
 		}
 
 		int start = page * PIECES_PER_PAGE;
@@ -287,8 +287,7 @@ public void updatePanelButtons() {
 				break;
 			}
 
-			GuiButtonSpellPiece piece = visibleButtons.get(i);
-			GuiButtonSpellPiece buttonSpellPiece = (GuiButtonSpellPiece) parent.getButtons().stream().filter(el -> el.equals(piece)).findFirst().orElse(null);
+			GuiButtonSpellPiece buttonSpellPiece = visibleButtons.get(i);
 			buttonSpellPiece.x = x + 5 + c % 5 * 18;
 			buttonSpellPiece.y = y + 20 + c / 5 * 18;
 			buttonSpellPiece.visible = true;
@@ -310,128 +309,6 @@ public boolean mouseClicked(double mouseX, double mouseY, int mouseButton) {
 		return false;
 	}
 
-	/**
-	 * If a piece has a ranking of <= 0, it's excluded from the search.
-	 */
-
-	private int ranking(String token, SpellPiece p) {
-		int rank = 0;
-		String name = I18n.format(p.getUnlocalizedName()).toLowerCase();
-		String desc = I18n.format(p.getUnlocalizedDesc()).toLowerCase();
-
-		for (String nameToken : token.split("\\s+")) {
-			if (nameToken.isEmpty()) {
-				continue;
-			}
-
-			if (nameToken.startsWith("in:")) {
-				String clippedToken = nameToken.substring(3);
-				if (clippedToken.isEmpty()) {
-					continue;
-				}
-
-				int maxRank = 0;
-				for (SpellParam<?> param : p.params.values()) {
-					String type = param.getRequiredTypeString().getString().toLowerCase();
-					maxRank = Math.max(maxRank, rankTextToken(type, clippedToken));
-				}
-
-				if (maxRank <= 0) {
-					return 0;
-				}
-				rank += maxRank;
-			} else if (nameToken.startsWith("out:")) {
-				String clippedToken = nameToken.substring(4);
-				if (clippedToken.isEmpty()) {
-					continue;
-				}
-
-				String type = p.getEvaluationTypeString().getString().toLowerCase();
-
-				if (rankTextToken(type, clippedToken) <= 0) {
-					return 0;
-				}
-				rank += rankTextToken(type, clippedToken);
-			} else if (nameToken.startsWith("@")) {
-				String clippedToken = nameToken.substring(1);
-				if (clippedToken.isEmpty()) {
-					continue;
-				}
-
-				String mod = PsiAPI.getSpellPieceKey(p.getClass()).getNamespace();
-				if (mod != null) {
-					int modRank = rankTextToken(mod, clippedToken);
-					if (modRank <= 0) {
-						return 0;
-					}
-					rank += modRank;
-				} else {
-					return 0;
-				}
-			} else {
-				int nameRank = rankTextToken(name, nameToken);
-				rank += nameRank;
-				if (nameRank <= 0 && rankTextToken(desc, nameToken) <= 0) {
-					return 0;
-				} else {
-					rank += rankTextToken(desc, nameToken) / 2;
-				}
-			}
-		}
-
-		return rank;
-	}
-
-	private int rankTextToken(String haystack, String token) {
-		if (token.isEmpty()) {
-			return 0;
-		}
-
-		if (token.startsWith("_")) {
-			String clippedToken = token.substring(1);
-			if (clippedToken.isEmpty()) {
-				return 0;
-			}
-			if (haystack.endsWith(clippedToken)) {
-				if (!Character.isLetterOrDigit(haystack.charAt(haystack.length() - clippedToken.length() - 1))) {
-					return clippedToken.length() * 3 / 2;
-				}
-				return clippedToken.length();
-			}
-		} else if (token.endsWith("_")) {
-			String clippedToken = token.substring(0, token.length() - 1);
-			if (clippedToken.isEmpty()) {
-				return 0;
-			}
-			if (haystack.startsWith(clippedToken)) {
-				if (haystack.length() >= clippedToken.length() + 1 && !Character.isLetterOrDigit(haystack.charAt(clippedToken.length() + 1))) {
-					return clippedToken.length() * 2;
-				}
-				return clippedToken.length();
-			}
-		} else {
-			if (token.startsWith("has:")) {
-				token = token.substring(4);
-			}
-
-			int idx = haystack.indexOf(token);
-			if (idx >= 0) {
-				int multiplier = 2;
-				if (idx == 0 || !Character.isLetterOrDigit(haystack.charAt(idx - 1))) {
-					multiplier += 2;
-				}
-				if (idx + token.length() + 1 >= haystack.length() ||
-						!Character.isLetterOrDigit(haystack.charAt(idx + token.length() + 1))) {
-					multiplier++;
-				}
-
-				return token.length() * multiplier / 2;
-			}
-		}
-
-		return 0;
-	}
-
 	public void closePanel() {
 		panelEnabled = false;
 		parent.getButtons().forEach(button -> {
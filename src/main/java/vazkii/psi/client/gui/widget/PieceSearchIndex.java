@@ -0,0 +1,318 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.client.gui.widget;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
+import net.minecraft.client.resources.I18n;
+
+import vazkii.psi.api.PsiAPI;
+import vazkii.psi.api.spell.SpellPiece;
+import vazkii.psi.client.gui.button.GuiButtonSpellPiece;
+import vazkii.psi.common.spell.constant.PieceConstantNumber;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search index for the pieces in the programmer's piece panel. Names, descriptions and types are
+ * translated and lowercased once when it's built, and the results of every search term are kept,
+ * so typing a character only searches for the term being typed. Plain terms are narrowed down with
+ * trigram postings before their text is scanned.
+ */
+public class PieceSearchIndex {
+
+	/** Term result for a piece that the term excludes */
+	private static final int EXCLUDED = -1;
+	private static final int MAX_CACHED_TERMS = 256;
+
+	private final List<GuiButtonSpellPiece> buttons;
+	private final String[] sortingNames;
+	private final String[] names;
+	private final String[] descs;
+	private final String[][] inTypes;
+	private final String[] outTypes;
+	private final String[] mods;
+	@Nullable
+	private final GuiButtonSpellPiece constantButton;
+
+	/** Trigram to the sorted indices of the pieces with it in their name or description */
+	private final Map<String, IntList> trigrams = new HashMap<>();
+	private final Map<String, int[]> termCache = new Object2ObjectOpenHashMap<>();
+
+	public PieceSearchIndex(List<GuiButtonSpellPiece> buttons) {
+		this.buttons = new ArrayList<>(buttons);
+		int size = this.buttons.size();
+		sortingNames = new String[size];
+		names = new String[size];
+		descs = new String[size];
+		inTypes = new String[size][];
+		outTypes = new String[size];
+		mods = new String[size];
+
+		GuiButtonSpellPiece constant = null;
+		for (int i = 0; i < size; i++) {
+			GuiButtonSpellPiece button = this.buttons.get(i);
+			SpellPiece piece = button.getPiece();
+			sortingNames[i] = button.getPieceSortingName();
+			names[i] = I18n.format(piece.getUnlocalizedName()).toLowerCase();
+			descs[i] = I18n.format(piece.getUnlocalizedDesc()).toLowerCase();
+			inTypes[i] = piece.params.values().stream()
+					.map(param -> param.getRequiredTypeString().getString().toLowerCase())
+					.toArray(String[]::new);
+			outTypes[i] = piece.getEvaluationTypeString().getString().toLowerCase();
+			mods[i] = PsiAPI.getSpellPieceKey(piece.getClass()).getNamespace();
+
+			if (constant == null && piece instanceof PieceConstantNumber) {
+				constant = button;
+			}
+		}
+		constantButton = constant;
+		indexTrigrams();
+	}
+
+	/**
+	 * Builds an index over already translated text, without any buttons behind it.
+	 */
+	PieceSearchIndex(String[] sortingNames, String[] names, String[] descs, String[][] inTypes, String[] outTypes, String[] mods) {
+		this.buttons = new ArrayList<>();
+		this.sortingNames = sortingNames;
+		this.names = names;
+		this.descs = descs;
+		this.inTypes = inTypes;
+		this.outTypes = outTypes;
+		this.mods = mods;
+		constantButton = null;
+		indexTrigrams();
+	}
+
+	private void indexTrigrams() {
+		for (int i = 0; i < names.length; i++) {
+			addTrigrams(names[i], i);
+			addTrigrams(descs[i], i);
+		}
+	}
+
+	private void addTrigrams(String text, int index) {
+		for (int i = 0; i + 3 <= text.length(); i++) {
+			IntList postings = trigrams.computeIfAbsent(text.substring(i, i + 3), t -> new IntArrayList());
+			if (postings.isEmpty() || postings.getInt(postings.size() - 1) != index) {
+				postings.add(index);
+			}
+		}
+	}
+
+	public List<GuiButtonSpellPiece> getButtons() {
+		return buttons;
+	}
+
+	public String getSortingName(int index) {
+		return sortingNames[index];
+	}
+
+	@Nullable
+	public GuiButtonSpellPiece getConstantButton() {
+		return constantButton;
+	}
+
+	/**
+	 * Ranks every piece against the query. If a piece has a ranking of <= 0, it's excluded from the search.
+	 */
+	public int[] rank(String query) {
+		int[] ranks = new int[names.length];
+		for (String term : query.split("\\s+")) {
+			if (term.isEmpty()) {
+				continue;
+			}
+
+			int[] termRanks = getTermRanks(term);
+			for (int i = 0; i < ranks.length; i++) {
+				if (ranks[i] != EXCLUDED) {
+					ranks[i] = termRanks[i] == EXCLUDED ? EXCLUDED : ranks[i] + termRanks[i];
+				}
+			}
+		}
+		return ranks;
+	}
+
+	private int[] getTermRanks(String term) {
+		int[] ranks = termCache.get(term);
+		if (ranks == null) {
+			if (termCache.size() >= MAX_CACHED_TERMS) {
+				termCache.clear();
+			}
+			ranks = computeTermRanks(term);
+			termCache.put(term, ranks);
+		}
+		return ranks;
+	}
+
+	private int[] computeTermRanks(String term) {
+		int[] ranks = new int[names.length];
+
+		if (term.startsWith("in:")) {
+			String clippedTerm = term.substring(3);
+			if (!clippedTerm.isEmpty()) {
+				for (int i = 0; i < ranks.length; i++) {
+					int maxRank = 0;
+					for (String type : inTypes[i]) {
+						maxRank = Math.max(maxRank, rankTextToken(type, clippedTerm));
+					}
+					ranks[i] = maxRank <= 0 ? EXCLUDED : maxRank;
+				}
+			}
+		} else if (term.startsWith("out:")) {
+			String clippedTerm = term.substring(4);
+			if (!clippedTerm.isEmpty()) {
+				for (int i = 0; i < ranks.length; i++) {
+					int rank = rankTextToken(outTypes[i], clippedTerm);
+					ranks[i] = rank <= 0 ? EXCLUDED : rank;
+				}
+			}
+		} else if (term.startsWith("@")) {
+			String clippedTerm = term.substring(1);
+			if (!clippedTerm.isEmpty()) {
+				for (int i = 0; i < ranks.length; i++) {
+					int rank = rankTextToken(mods[i], clippedTerm);
+					ranks[i] = rank <= 0 ? EXCLUDED : rank;
+				}
+			}
+		} else {
+			// A plain term only matches pieces with all of its trigrams in their name or description
+			Arrays.fill(ranks, EXCLUDED);
+			IntList candidates = getCandidates(getNeedle(term));
+			for (int c = 0; c < (candidates == null ? ranks.length : candidates.size()); c++) {
+				int i = candidates == null ? c : candidates.getInt(c);
+				int nameRank = rankTextToken(names[i], term);
+				int descRank = rankTextToken(descs[i], term);
+				if (nameRank > 0 || descRank > 0) {
+					ranks[i] = nameRank + descRank / 2;
+				}
+			}
+		}
+
+		return ranks;
+	}
+
+	/**
+	 * Gets the text a plain term needs to find in a name or description to match at all.
+	 */
+	private static String getNeedle(String term) {
+		if (term.startsWith("_")) {
+			return term.substring(1);
+		} else if (term.endsWith("_")) {
+			return term.substring(0, term.length() - 1);
+		} else if (term.startsWith("has:")) {
+			return term.substring(4);
+		}
+		return term;
+	}
+
+	/**
+	 * @return the indices of the pieces that have every trigram of the needle, or null if it's too short to tell
+	 */
+	@Nullable
+	private IntList getCandidates(String needle) {
+		if (needle.length() < 3) {
+			return null;
+		}
+
+		IntList candidates = null;
+		for (int i = 0; i + 3 <= needle.length(); i++) {
+			IntList postings = trigrams.get(needle.substring(i, i + 3));
+			if (postings == null) {
+				return new IntArrayList();
+			}
+			candidates = candidates == null ? postings : intersect(candidates, postings);
+			if (candidates.isEmpty()) {
+				break;
+			}
+		}
+		return candidates;
+	}
+
+	private static IntList intersect(IntList a, IntList b) {
+		IntList result = new IntArrayList(Math.min(a.size(), b.size()));
+		int i = 0;
+		int j = 0;
+		while (i < a.size() && j < b.size()) {
+			int x = a.getInt(i);
+			int y = b.getInt(j);
+			if (x == y) {
+				result.add(x);
+				i++;
+				j++;
+			} else if (x < y) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return result;
+	}
+
+	private static int rankTextToken(String haystack, String token) {
+		if (token.isEmpty()) {
+			return 0;
+		}
+
+		if (token.startsWith("_")) {
+			String clippedToken = token.substring(1);
+			if (clippedToken.isEmpty()) {
+				return 0;
+			}
+			if (haystack.endsWith(clippedToken)) {
+				int before = haystack.length() - clippedToken.length() - 1;
+				if (before < 0 || !Character.isLetterOrDigit(haystack.charAt(before))) {
+					return clippedToken.length() * 3 / 2;
+				}
+				return clippedToken.length();
+			}
+		} else if (token.endsWith("_")) {
+			String clippedToken = token.substring(0, token.length() - 1);
+			if (clippedToken.isEmpty()) {
+				return 0;
+			}
+			if (haystack.startsWith(clippedToken)) {
+				if (haystack.length() == clippedToken.length() || !Character.isLetterOrDigit(haystack.charAt(clippedToken.length()))) {
+					return clippedToken.length() * 2;
+				}
+				return clippedToken.length();
+			}
+		} else {
+			if (token.startsWith("has:")) {
+				token = token.substring(4);
+			}
+
+			int idx = haystack.indexOf(token);
+			if (idx >= 0) {
+				int multiplier = 2;
+				if (idx == 0 || !Character.isLetterOrDigit(haystack.charAt(idx - 1))) {
+					multiplier += 2;
+				}
+				int after = idx + token.length();
+				if (after == haystack.length() || !Character.isLetterOrDigit(haystack.charAt(after))) {
+					multiplier++;
+				}
+
+				return token.length() * multiplier / 2;
+			}
+		}
+
+		return 0;
+	}
+
+}
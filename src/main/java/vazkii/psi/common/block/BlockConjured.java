@@ -16,7 +16,6 @@
 import net.minecraft.state.BooleanProperty;
 import net.minecraft.state.StateContainer;
 import net.minecraft.state.properties.BlockStateProperties;
-import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.shapes.ISelectionContext;
@@ -32,10 +31,10 @@
 
 import vazkii.psi.api.internal.PsiRenderHelper;
 import vazkii.psi.common.Psi;
-import vazkii.psi.common.block.tile.TileConjured;
+import vazkii.psi.common.core.handler.ConjuredBlockHandler;
+import vazkii.psi.common.core.handler.capability.ConjuredChunkData;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 
 import java.util.Random;
 
@@ -53,6 +52,28 @@ public class BlockConjured extends Block implements IWaterLoggable {
 
 	protected static final VoxelShape LIGHT_SHAPE = Block.makeCuboidShape(4, 4, 4, 12, 12, 12);
 
+	// http://cns-alumni.bu.edu/~lavanya/Graphics/cs580/p5/web-page/cube_edges.gif
+	private static final BooleanProperty[] NEIGHBOR_PROPERTIES = { BLOCK_DOWN, BLOCK_UP, BLOCK_NORTH, BLOCK_SOUTH, BLOCK_EAST, BLOCK_WEST };
+	private static final int[][] NEIGHBOR_EDGES = {
+			{ 0, 1, 2, 3 }, { 4, 5, 6, 7 }, { 3, 7, 8, 11 }, { 1, 5, 9, 10 }, { 2, 6, 10, 11 }, { 0, 4, 8, 9 }
+	};
+	/** Edges to draw particles on, indexed by the bitmask of connected neighbours */
+	private static final int[] EDGE_MASKS = new int[1 << NEIGHBOR_PROPERTIES.length];
+
+	static {
+		for (int mask = 0; mask < EDGE_MASKS.length; mask++) {
+			int edges = (1 << 12) - 1;
+			for (int i = 0; i < NEIGHBOR_EDGES.length; i++) {
+				if ((mask & 1 << i) != 0) {
+					for (int edge : NEIGHBOR_EDGES[i]) {
+						edges &= ~(1 << edge);
+					}
+				}
+			}
+			EDGE_MASKS[mask] = edges;
+		}
+	}
+
 	public BlockConjured(Properties properties) {
 		super(properties);
 		setDefaultState(getStateContainer().getBaseState().with(LIGHT, false).with(SOLID, false).with(WATERLOGGED, false).with(BLOCK_DOWN, false).with(BLOCK_UP, false).with(BLOCK_EAST, false).with(BLOCK_WEST, false).with(BLOCK_NORTH, false).with(BLOCK_SOUTH, false));
@@ -60,24 +81,88 @@ public BlockConjured(Properties properties) {
 
 	@Override
 	@OnlyIn(Dist.CLIENT)
-	public void animateTick(BlockState stateIn, World worldIn, BlockPos pos, Random rand) {
-		TileEntity inWorld = worldIn.getTileEntity(pos);
-		if (inWorld instanceof TileConjured) {
-			((TileConjured) inWorld).doParticles();
+	public void animateTick(BlockState state, World world, BlockPos pos, Random rand) {
+		int color = Psi.proxy.getColorForColorizer(ConjuredBlockHandler.getColorizer(world, pos));
+
+		float r = PsiRenderHelper.r(color) / 255F;
+		float g = PsiRenderHelper.g(color) / 255F;
+		float b = PsiRenderHelper.b(color) / 255F;
+
+		if (state.get(SOLID)) {
+			int edges = EDGE_MASKS[getNeighborMask(state)];
+
+			double x = pos.getX();
+			double y = pos.getY();
+			double z = pos.getZ();
+
+			// Bottom
+			makeParticle(edges, 0, r, g, b, x + 0, y + 0, z + 0, 0, 0, 1);
+			makeParticle(edges, 1, r, g, b, x + 0, y + 0, z + 1, 1, 0, 0);
+			makeParticle(edges, 2, r, g, b, x + 1, y + 0, z + 0, 0, 0, 1);
+			makeParticle(edges, 3, r, g, b, x + 0, y + 0, z + 0, 1, 0, 0);
+
+			// Top
+			makeParticle(edges, 4, r, g, b, x + 0, y + 1, z + 0, 0, 0, 1);
+			makeParticle(edges, 5, r, g, b, x + 0, y + 1, z + 1, 1, 0, 0);
+			makeParticle(edges, 6, r, g, b, x + 1, y + 1, z + 0, 0, 0, 1);
+			makeParticle(edges, 7, r, g, b, x + 0, y + 1, z + 0, 1, 0, 0);
+
+			// Sides
+			makeParticle(edges, 8, r, g, b, x + 0, y + 0, z + 0, 0, 1, 0);
+			makeParticle(edges, 9, r, g, b, x + 0, y + 0, z + 1, 0, 1, 0);
+			makeParticle(edges, 10, r, g, b, x + 1, y + 0, z + 1, 0, 1, 0);
+			makeParticle(edges, 11, r, g, b, x + 1, y + 0, z + 0, 0, 1, 0);
+
+		} else if (rand.nextFloat() < 0.5F) {
+			float w = 0.15F;
+			float h = 0.05F;
+			double x = pos.getX() + 0.5 + (Math.random() - 0.5) * w;
+			double y = pos.getY() + 0.25 + (Math.random() - 0.5) * h;
+			double z = pos.getZ() + 0.5 + (Math.random() - 0.5) * w;
+
+			float s = 0.2F + (float) Math.random() * 0.1F;
+			float m = 0.01F + (float) Math.random() * 0.015F;
+
+			Psi.proxy.wispFX(x, y, z, r, g, b, s, -m);
+		}
+	}
+
+	@OnlyIn(Dist.CLIENT)
+	private static void makeParticle(int edges, int edge, float r, float g, float b, double xp, double yp, double zp, double xv, double yv, double zv) {
+		if ((edges & 1 << edge) != 0) {
+			float m = 0.1F;
+			Psi.proxy.sparkleFX(xp, yp, zp, r, g, b, (float) (xv * m), (float) (yv * m), (float) (zv * m), 2.75f, 15);
+		}
+	}
+
+	private static int getNeighborMask(BlockState state) {
+		int mask = 0;
+		for (int i = 0; i < NEIGHBOR_PROPERTIES.length; i++) {
+			if (state.get(NEIGHBOR_PROPERTIES[i])) {
+				mask |= 1 << i;
+			}
 		}
+		return mask;
 	}
 
-	@Nullable
 	@Override
 	public float[] getBeaconColorMultiplier(BlockState state, IWorldReader world, BlockPos pos, BlockPos beaconPos) {
-		TileEntity inWorld = world.getTileEntity(pos);
-		if (inWorld instanceof TileConjured) {
-			int color = Psi.proxy.getColorForColorizer(((TileConjured) inWorld).colorizer);
-			return new float[] { PsiRenderHelper.r(color) / 255F, PsiRenderHelper.g(color) / 255F, PsiRenderHelper.b(color) / 255F };
+		int color = Psi.proxy.getColorForColorizer(ConjuredBlockHandler.getColorizer(world, pos));
+		return new float[] { PsiRenderHelper.r(color) / 255F, PsiRenderHelper.g(color) / 255F, PsiRenderHelper.b(color) / 255F };
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public void onReplaced(BlockState state, World world, BlockPos pos, BlockState newState, boolean isMoving) {
+		if (newState.getBlock() != this) {
+			ConjuredBlockHandler.removed(world, pos);
 		}
-		return null;
+		super.onReplaced(state, world, pos, newState, isMoving);
 	}
 
+	/**
+	 * Only reached by blocks conjured before timed blocks were tracked in {@link ConjuredChunkData}.
+	 */
 	@Override
 	public void tick(BlockState state, ServerWorld world, BlockPos pos, Random random) {
 		world.removeBlock(pos, false);
@@ -165,14 +250,4 @@ public float getAmbientOcclusionLightValue(BlockState state, IBlockReader worldI
 		return 1.0F;
 	}
 
-	@Override
-	public boolean hasTileEntity(BlockState state) {
-		return true;
-	}
-
-	@Override
-	public TileEntity createTileEntity(@Nonnull BlockState state, IBlockReader world) {
-		return new TileConjured();
-	}
-
 }
@@ -131,6 +131,9 @@ public ActionResultType setSpell(World worldIn, BlockPos pos, PlayerEntity playe
 
 				programmer.spell.uuid = UUID.randomUUID();
 				settable.ifPresent(c -> c.setSpell(playerIn, programmer.spell));
+				if (!worldIn.isRemote) {
+					PsiAPI.internalHandler.getSpellCache().precompile(programmer.spell);
+				}
 				if (playerIn instanceof ServerPlayerEntity) {
 					VanillaPacketDispatcher.dispatchTEToPlayer(programmer, (ServerPlayerEntity) playerIn);
 				}
@@ -21,6 +21,7 @@
 import vazkii.psi.common.block.BlockProgrammer;
 import vazkii.psi.common.lib.LibBlockNames;
 import vazkii.psi.common.lib.LibMisc;
+import vazkii.psi.common.spell.SpellCodec;
 import vazkii.psi.common.spell.SpellCompiler;
 
 import javax.annotation.Nonnull;
@@ -30,6 +31,8 @@ public class TileProgrammer extends TileEntity {
 	public static TileEntityType<TileProgrammer> TYPE;
 
 	private static final String TAG_SPELL = "spell";
+	/** The spell in update packets, encoded with {@link SpellCodec} */
+	private static final String TAG_SPELL_PACKED = "spellPacked";
 	private static final String TAG_PLAYER_LOCK = "playerLock";
 
 	public Spell spell;
@@ -78,7 +81,7 @@ public CompoundNBT write(CompoundNBT cmp) {
 	}
 
 	public void readPacketNBT(CompoundNBT cmp) {
-		CompoundNBT spellCmp = cmp.getCompound(TAG_SPELL);
+		CompoundNBT spellCmp = cmp.contains(TAG_SPELL_PACKED) ? SpellCodec.decode(cmp.getByteArray(TAG_SPELL_PACKED)) : cmp.getCompound(TAG_SPELL);
 		if (spell == null) {
 			spell = Spell.createFromNBT(spellCmp);
 		} else {
@@ -87,14 +90,26 @@ public void readPacketNBT(CompoundNBT cmp) {
 		playerLock = cmp.getString(TAG_PLAYER_LOCK);
 	}
 
+	private CompoundNBT writePacketNBT() {
+		CompoundNBT cmp = super.write(new CompoundNBT());
+
+		CompoundNBT spellCmp = new CompoundNBT();
+		if (spell != null) {
+			spell.writeToNBT(spellCmp);
+		}
+		cmp.putByteArray(TAG_SPELL_PACKED, SpellCodec.encode(spellCmp));
+		cmp.putString(TAG_PLAYER_LOCK, playerLock);
+		return cmp;
+	}
+
 	@Override
 	public SUpdateTileEntityPacket getUpdatePacket() {
-		return new SUpdateTileEntityPacket(getPos(), 0, write(new CompoundNBT()));
+		return new SUpdateTileEntityPacket(getPos(), 0, writePacketNBT());
 	}
 
 	@Override
 	public CompoundNBT getUpdateTag() {
-		return write(new CompoundNBT());
+		return writePacketNBT();
 	}
 
 	public boolean canPlayerInteract(PlayerEntity player) {
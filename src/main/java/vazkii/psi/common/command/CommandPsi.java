@@ -0,0 +1,280 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.command.arguments.EntityArgument;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.loading.FMLEnvironment;
+
+import vazkii.psi.api.spell.CompiledSpell;
+import vazkii.psi.common.Psi;
+import vazkii.psi.common.core.handler.ConjuredBlockHandler;
+import vazkii.psi.common.core.handler.EntitySnapshotHandler;
+import vazkii.psi.common.lib.LibMisc;
+import vazkii.psi.common.spell.EntityListBenchmark;
+import vazkii.psi.common.spell.MassMotionBenchmark;
+import vazkii.psi.common.spell.RaycastBenchmark;
+import vazkii.psi.common.spell.SpellCache;
+import vazkii.psi.common.spell.SpellCodec;
+import vazkii.psi.common.spell.SpellPhaseBalancer;
+import vazkii.psi.common.spell.SpellProfiler;
+import vazkii.psi.common.spell.SpellScheduler;
+import vazkii.psi.common.spell.trace.SpellTraceRecorder;
+import vazkii.psi.common.spell.trace.SpellTraceReplayer;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The /psi admin command.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public class CommandPsi {
+
+	@SubscribeEvent
+	public static void onRegisterCommands(RegisterCommandsEvent event) {
+		register(event.getDispatcher());
+	}
+
+	public static void register(CommandDispatcher<CommandSource> dispatcher) {
+		LiteralArgumentBuilder<CommandSource> command = Commands.literal(LibMisc.MOD_ID)
+				.requires(source -> source.hasPermissionLevel(2))
+				.then(Commands.literal("conjured").executes(CommandPsi::reportConjured))
+				.then(Commands.literal("scheduler").executes(CommandPsi::reportScheduler))
+				.then(Commands.literal("cache").executes(CommandPsi::reportCache))
+				.then(Commands.literal("snapshots").executes(CommandPsi::reportSnapshots))
+				.then(Commands.literal("profile")
+						.then(Commands.literal("start").executes(CommandPsi::startProfiling))
+						.then(Commands.literal("stop").executes(CommandPsi::stopProfiling))
+						.then(Commands.literal("dump").executes(CommandPsi::dumpProfile)))
+				.then(Commands.literal("trace")
+						.then(Commands.literal("start").executes(context -> startTrace(context, null))
+								.then(Commands.argument("player", EntityArgument.player())
+										.executes(context -> startTrace(context, EntityArgument.getPlayer(context, "player")))))
+						.then(Commands.literal("stop").executes(CommandPsi::stopTrace))
+						.then(Commands.literal("replay")
+								.then(Commands.argument("file", StringArgumentType.string()).executes(CommandPsi::replayTrace))));
+
+		// The benchmarks hold up the server thread for as long as they run, so they're only there in dev
+		if (!FMLEnvironment.production) {
+			command.then(Commands.literal("bench")
+					.requires(source -> source.hasPermissionLevel(4))
+					.then(Commands.literal("codec").executes(CommandPsi::benchmarkCodec))
+					.then(Commands.literal("lists").executes(CommandPsi::benchmarkLists))
+					.then(Commands.literal("motion").executes(CommandPsi::benchmarkMotion))
+					.then(Commands.literal("raycast").executes(CommandPsi::benchmarkRaycast)));
+		}
+
+		dispatcher.register(command);
+	}
+
+	private static int reportConjured(CommandContext<CommandSource> context) {
+		CommandSource source = context.getSource();
+		int total = 0;
+		for (ServerWorld world : source.getServer().getWorlds()) {
+			int[] counts = ConjuredBlockHandler.countLoaded(world);
+			total += counts[0];
+			source.sendFeedback(new TranslationTextComponent("psimisc.command.conjured",
+					world.getDimensionKey().getLocation().toString(), counts[0], counts[1]), false);
+		}
+		return total;
+	}
+
+	private static int reportScheduler(CommandContext<CommandSource> context) {
+		long[] metrics = SpellScheduler.pollMetrics();
+		context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.scheduler",
+				metrics[0], metrics[1], metrics[2], metrics[3], metrics[4], metrics[5]), false);
+		context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.scheduler.phases",
+				SpellPhaseBalancer.WINDOW, Arrays.toString(SpellPhaseBalancer.getPhaseLoad()), SpellPhaseBalancer.getPeakExecutions()), false);
+		return (int) metrics[3];
+	}
+
+	private static int reportCache(CommandContext<CommandSource> context) {
+		long[] counts = SpellCache.getCompileCounts();
+		context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.cache",
+				SpellCache.map.size(), counts[0], counts[3], counts[1], counts[2]), false);
+		return SpellCache.map.size();
+	}
+
+	private static int reportSnapshots(CommandContext<CommandSource> context) {
+		long[] counts = EntitySnapshotHandler.pollCounts();
+		long total = counts[0] + counts[1];
+		context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.snapshots",
+				total, counts[0], counts[1], counts[1] * 100 / Math.max(total, 1)), false);
+		return (int) counts[1];
+	}
+
+	private static int benchmarkLists(CommandContext<CommandSource> context) {
+		World world = context.getSource().getWorld();
+		for (int size : new int[] { 1000, 10000 }) {
+			long[] result = EntityListBenchmark.run(world, size, 200000 / size);
+			context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.lists", size,
+					result[0], result[1], result[2], result[3], result[4], result[5]), false);
+		}
+		return 1;
+	}
+
+	private static int benchmarkMotion(CommandContext<CommandSource> context) {
+		for (int size : new int[] { 100, 1000 }) {
+			long[] result = MassMotionBenchmark.run(size, 100000 / size);
+			context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.motion", size,
+					size, result[0], result[1], result[2], result[3]), false);
+		}
+		return 1;
+	}
+
+	private static int benchmarkRaycast(CommandContext<CommandSource> context) {
+		CommandSource source = context.getSource();
+		for (int size : new int[] { 100, 1000 }) {
+			long[] result = RaycastBenchmark.run(source.getWorld(), source.getEntity(), source.getPos(), size, 100000 / size);
+			source.sendFeedback(new TranslationTextComponent("psimisc.command.raycast", size,
+					result[0], result[1], result[2]), false);
+		}
+		return 1;
+	}
+
+	private static int benchmarkCodec(CommandContext<CommandSource> context) throws CommandSyntaxException {
+		List<CompoundNBT> corpus = new ArrayList<>();
+		for (CompiledSpell spell : SpellCache.map.values()) {
+			CompoundNBT cmp = new CompoundNBT();
+			spell.sourceSpell.writeToNBT(cmp);
+			corpus.add(cmp);
+		}
+		if (corpus.isEmpty()) {
+			throw new SimpleCommandExceptionType(new TranslationTextComponent("psimisc.command.codec.empty")).create();
+		}
+
+		int rounds = 100;
+		long[] result = SpellCodec.benchmark(corpus, rounds);
+		long runs = (long) corpus.size() * rounds;
+		context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.codec", corpus.size(),
+				result[0], result[1], result[1] * 100 / Math.max(result[0], 1), result[2],
+				result[3] / runs, result[4] / runs), false);
+		return (int) result[2];
+	}
+
+	private static int startProfiling(CommandContext<CommandSource> context) throws CommandSyntaxException {
+		if (!SpellProfiler.start()) {
+			throw new SimpleCommandExceptionType(new TranslationTextComponent("psimisc.command.profile.running")).create();
+		}
+		context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.profile.started"), true);
+		return 1;
+	}
+
+	private static int stopProfiling(CommandContext<CommandSource> context) throws CommandSyntaxException {
+		if (!SpellProfiler.stop()) {
+			throw new SimpleCommandExceptionType(new TranslationTextComponent("psimisc.command.profile.not_running")).create();
+		}
+		context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.profile.stopped"), true);
+		return 1;
+	}
+
+	private static int dumpProfile(CommandContext<CommandSource> context) throws CommandSyntaxException {
+		SpellProfiler profiler = SpellProfiler.getLast();
+		if (profiler == null) {
+			throw new SimpleCommandExceptionType(new TranslationTextComponent("psimisc.command.profile.empty")).create();
+		}
+
+		String name = "psi-profile-" + new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date()) + ".txt";
+		Path file = context.getSource().getServer().getDataDirectory().toPath().resolve(name);
+		try {
+			profiler.dump(file);
+		} catch (IOException e) {
+			Psi.logger.error("Failed to write spell profile", e);
+			throw new SimpleCommandExceptionType(new TranslationTextComponent("psimisc.command.profile.failed", e.getMessage())).create();
+		}
+		context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.profile.dumped", file.toAbsolutePath().toString()), true);
+		return 1;
+	}
+
+	private static Path getTraceDirectory(CommandSource source) {
+		return source.getServer().getDataDirectory().toPath().resolve("psi-traces").toAbsolutePath().normalize();
+	}
+
+	private static int startTrace(CommandContext<CommandSource> context, @Nullable ServerPlayerEntity player) throws CommandSyntaxException {
+		String name = "psi-trace-" + new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date()) + ".bin";
+		Path file = getTraceDirectory(context.getSource()).resolve(name);
+		try {
+			if (!SpellTraceRecorder.start(file, player == null ? null : player.getUniqueID())) {
+				throw new SimpleCommandExceptionType(new TranslationTextComponent("psimisc.command.trace.running")).create();
+			}
+		} catch (IOException e) {
+			Psi.logger.error("Failed to start spell trace", e);
+			throw new SimpleCommandExceptionType(new TranslationTextComponent("psimisc.command.trace.failed", e.getMessage())).create();
+		}
+		context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.trace.started", name), true);
+		return 1;
+	}
+
+	private static int stopTrace(CommandContext<CommandSource> context) throws CommandSyntaxException {
+		SpellTraceRecorder recorder = SpellTraceRecorder.stop();
+		if (recorder == null) {
+			throw new SimpleCommandExceptionType(new TranslationTextComponent("psimisc.command.trace.not_running")).create();
+		}
+		CommandSource source = context.getSource();
+		source.sendFeedback(new TranslationTextComponent("psimisc.command.trace.stopped",
+				recorder.getWritten(), recorder.getFile().getFileName().toString()), true);
+
+		replayInBackground(source, recorder.getFile());
+		return recorder.getWritten();
+	}
+
+	private static int replayTrace(CommandContext<CommandSource> context) throws CommandSyntaxException {
+		Path directory = getTraceDirectory(context.getSource());
+		Path file = directory.resolve(StringArgumentType.getString(context, "file")).normalize();
+		if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+			throw new SimpleCommandExceptionType(new TranslationTextComponent("psimisc.command.trace.missing", file.getFileName().toString())).create();
+		}
+
+		context.getSource().sendFeedback(new TranslationTextComponent("psimisc.command.trace.replaying", file.getFileName().toString()), true);
+		replayInBackground(context.getSource(), file);
+		return 1;
+	}
+
+	/**
+	 * The replay reads the whole trace back, which is left to a worker so the tick isn't held up.
+	 */
+	private static void replayInBackground(CommandSource source, Path file) {
+		MinecraftServer server = source.getServer();
+		SpellTraceReplayer.replayInBackground(file).whenComplete((report, error) -> server.execute(() -> {
+			if (error != null) {
+				Psi.logger.error("Failed to replay spell trace", error);
+				source.sendFeedback(new TranslationTextComponent("psimisc.command.trace.failed", error.getCause() == null ? error.getMessage() : error.getCause().getMessage()), true);
+			} else {
+				source.sendFeedback(new TranslationTextComponent("psimisc.command.trace.replayed", report.toAbsolutePath().toString()), true);
+			}
+		}));
+	}
+
+}
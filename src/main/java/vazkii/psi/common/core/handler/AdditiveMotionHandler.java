@@ -8,25 +8,34 @@
  */
 package vazkii.psi.common.core.handler;
 
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.vector.Vector3d;
+import net.minecraft.world.server.ServerChunkProvider;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
-import net.minecraftforge.fml.network.PacketDistributor;
 
 import vazkii.psi.common.lib.LibMisc;
 import vazkii.psi.common.network.MessageRegister;
 import vazkii.psi.common.network.message.MessageAdditiveMotion;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
 
 @Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
 public class AdditiveMotionHandler {
 	private static final Map<Entity, Vector3d> toUpdate = new WeakHashMap<>();
+	/** Most entities sent in one motion packet, larger batches are split so no packet grows past a few dozen kilobytes */
+	private static final int MAX_ENTITIES_PER_MESSAGE = 1024;
 
 	public static void addMotion(Entity entity, double x, double y, double z) {
 		if (x == 0 && y == 0 && z == 0) {
@@ -38,30 +47,59 @@ public static void addMotion(Entity entity, double x, double y, double z) {
 		}
 	}
 
+	/**
+	 * Applies the queued motion. Instead of one packet per entity and tracking player, every player gets a single
+	 * packet with the motion of all entities in the chunks they're watching, themselves included.
+	 */
 	@SubscribeEvent
 	public static void onPlayerTick(TickEvent.WorldTickEvent e) {
 		if (e.side.isServer() && e.phase == TickEvent.Phase.END) {
-			for (Entity entity : toUpdate.keySet()) {
-				if (!entity.velocityChanged) { // Allow velocity change packets to take priority.
-					Vector3d vec = toUpdate.get(entity);
-					if (vec != null) { // Edge case where the entity expired in the ms between calls
-						MessageAdditiveMotion motion = new MessageAdditiveMotion(entity.getEntityId(), vec.x, vec.y, vec.z);
-						//We want a player's motion to be handled client-side to ensure movement consistency
-						//Otherwise it feels jerky.
-						if (entity instanceof ServerPlayerEntity) {
-							MessageRegister.sendToPlayer(motion, (ServerPlayerEntity) entity);
-						} else {
-							entity.addVelocity(vec.x, vec.y, vec.z);
-						}
-						if (entity.world instanceof ServerWorld) {
-							MessageRegister.HANDLER.send(PacketDistributor.TRACKING_ENTITY.with(() -> entity), motion);
-						}
+			Map<ServerPlayerEntity, MotionBatch> batches = new HashMap<>();
+			for (Map.Entry<Entity, Vector3d> entry : toUpdate.entrySet()) {
+				Entity entity = entry.getKey();
+				Vector3d vec = entry.getValue();
+				if (entity.velocityChanged || vec == null) { // Allow velocity change packets to take priority.
+					continue;
+				}
 
-					}
+				//We want a player's motion to be handled client-side to ensure movement consistency
+				//Otherwise it feels jerky.
+				if (entity instanceof ServerPlayerEntity) {
+					batches.computeIfAbsent((ServerPlayerEntity) entity, p -> new MotionBatch()).add(entity, vec);
+				} else {
+					entity.addVelocity(vec.x, vec.y, vec.z);
+				}
+				if (entity.world instanceof ServerWorld) {
+					ServerChunkProvider chunkProvider = ((ServerWorld) entity.world).getChunkProvider();
+					chunkProvider.chunkManager.getTrackingPlayers(new ChunkPos(entity.chunkCoordX, entity.chunkCoordZ), false)
+							.filter(player -> player != entity)
+							.forEach(player -> batches.computeIfAbsent(player, p -> new MotionBatch()).add(entity, vec));
 				}
 			}
 
 			toUpdate.clear();
+			batches.forEach((player, batch) -> batch.send(player));
+		}
+	}
+
+	private static class MotionBatch {
+		private final IntList entityIDs = new IntArrayList();
+		private final DoubleList motions = new DoubleArrayList();
+
+		private void add(Entity entity, Vector3d vec) {
+			entityIDs.add(entity.getEntityId());
+			motions.add(vec.x);
+			motions.add(vec.y);
+			motions.add(vec.z);
+		}
+
+		private void send(ServerPlayerEntity player) {
+			for (int from = 0; from < entityIDs.size(); from += MAX_ENTITIES_PER_MESSAGE) {
+				int to = Math.min(from + MAX_ENTITIES_PER_MESSAGE, entityIDs.size());
+				int[] ids = entityIDs.subList(from, to).toIntArray();
+				double[] chunk = motions.subList(from * 3, to * 3).toDoubleArray();
+				MessageRegister.sendToPlayer(new MessageAdditiveMotion(ids, chunk), player);
+			}
 		}
 	}
 }
@@ -54,7 +54,10 @@ public static class Common {
 
 		public final ForgeConfigSpec.BooleanValue magiPsiClientSide;
 		public final ForgeConfigSpec.IntValue spellCacheSize;
+		public final ForgeConfigSpec.BooleanValue persistSpellCache;
 		public final ForgeConfigSpec.IntValue cadHarvestLevel;
+		public final ForgeConfigSpec.BooleanValue batchBlockMutations;
+		public final ForgeConfigSpec.IntValue spellTickBudget;
 
 		public Common(ForgeConfigSpec.Builder builder) {
 
@@ -64,9 +67,18 @@ public Common(ForgeConfigSpec.Builder builder) {
 			spellCacheSize = builder.comment("How many compiled spells should be kept in a cache. Probably best not to mess with it if you don't know what you're doing.")
 					.defineInRange("common.spellCacheSize", 200, 0, Integer.MAX_VALUE);
 
+			persistSpellCache = builder.comment("Controls whether compiled spells are also kept on disk, in psi-cache/spell-plans.bin, so spells don't need to be compiled again after a restart.")
+					.define("common.persistSpellCache", true);
+
 			cadHarvestLevel = builder.comment("The harvest level of a CAD for the purposes of block breaking spells. Defaults to 3 (diamond level)")
 					.defineInRange("common.cadHarvestLevel", 3, 0, 255);
 
+			batchBlockMutations = builder.comment("Controls whether sequence block tricks defer neighbor updates until the trick is done and send their block break effects as a single packet. Turn this off to get the exact vanilla update order, one block at a time.")
+					.define("common.batchBlockMutations", true);
+
+			spellTickBudget = builder.comment("How many milliseconds of each server tick spells may take, shared fairly between casters. Spells cast directly by a player over the budget are put off to the next tick, every caster still gets at least one spell per tick, and spells cast from projectiles, mines and circles always run right away. Set to 0 to run every spell right away.")
+					.defineInRange("common.spellTickBudget", 25, 0, 1000);
+
 		}
 	}
 
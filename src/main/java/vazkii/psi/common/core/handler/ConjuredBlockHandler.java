@@ -0,0 +1,255 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.core.handler;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectSortedMap;
+
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.IWorldReader;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IChunk;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.ChunkWatchEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.network.PacketDistributor;
+
+import vazkii.psi.common.block.base.ModBlocks;
+import vazkii.psi.common.core.handler.capability.ConjuredChunkData;
+import vazkii.psi.common.lib.LibMisc;
+import vazkii.psi.common.network.MessageRegister;
+import vazkii.psi.common.network.message.MessageConjuredSync;
+import vazkii.psi.common.spell.BlockMutationBatch;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps track of conjured blocks without a tile entity per block. The colorizer and expiry time of every
+ * conjured block live in its chunk's {@link ConjuredChunkData}, which is saved along with the chunk. Timed
+ * blocks are driven by a per world expiry wheel keyed by the tick the next block in a chunk is due, so a
+ * tick only looks at the chunks that actually have something to remove.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public class ConjuredBlockHandler {
+	private static final Map<IWorld, WorldData> worlds = new WeakHashMap<>();
+
+	private static class WorldData {
+		/** Loaded chunks that contain conjured blocks */
+		private final Set<ConjuredChunkData> loaded = Collections.newSetFromMap(new WeakHashMap<>());
+		/** Chunks with changes the clients haven't seen yet */
+		private final Set<ConjuredChunkData> dirty = Collections.newSetFromMap(new WeakHashMap<>());
+		/** Tick to the chunks that have a timed block due on it */
+		private final Long2ObjectSortedMap<Set<ConjuredChunkData>> wheel = new Long2ObjectRBTreeMap<>();
+
+		/**
+		 * Files the chunk under its next expiry, taking it out of the slot it was in before.
+		 */
+		private void schedule(ConjuredChunkData data) {
+			long expiry = data.getNextExpiry();
+			if (expiry == data.getScheduledTick()) {
+				return;
+			}
+
+			unschedule(data);
+			if (expiry != Long.MAX_VALUE) {
+				wheel.computeIfAbsent(expiry, t -> Collections.newSetFromMap(new IdentityHashMap<>())).add(data);
+				data.setScheduledTick(expiry);
+			}
+		}
+
+		private void unschedule(ConjuredChunkData data) {
+			long tick = data.getScheduledTick();
+			if (tick == Long.MAX_VALUE) {
+				return;
+			}
+
+			Set<ConjuredChunkData> scheduled = wheel.get(tick);
+			if (scheduled != null) {
+				scheduled.remove(data);
+				if (scheduled.isEmpty()) {
+					wheel.remove(tick);
+				}
+			}
+			data.setScheduledTick(Long.MAX_VALUE);
+		}
+	}
+
+	private static WorldData getData(IWorld world) {
+		return worlds.computeIfAbsent(world, w -> new WorldData());
+	}
+
+	/**
+	 * Registers a block that was just conjured at the given position.
+	 *
+	 * @param time how many ticks the block should last for, or 0 or less if it's permanent
+	 */
+	public static void conjured(World world, BlockPos pos, ItemStack colorizer, int time) {
+		if (world.isRemote) {
+			return;
+		}
+
+		ConjuredChunkData data = ConjuredChunkData.get(world.getChunkAt(pos));
+		data.add(pos, colorizer, time > 0 ? world.getGameTime() + time : 0);
+
+		WorldData worldData = getData(world);
+		worldData.loaded.add(data);
+		worldData.dirty.add(data);
+		if (time > 0) {
+			worldData.schedule(data);
+		}
+	}
+
+	public static void removed(World world, BlockPos pos) {
+		if (world.isRemote) {
+			return;
+		}
+
+		ConjuredChunkData data = ConjuredChunkData.get(world.getChunkAt(pos));
+		data.remove(pos);
+		WorldData worldData = getData(world);
+		worldData.schedule(data);
+		if (data.isDirty()) {
+			worldData.dirty.add(data);
+		}
+	}
+
+	public static ItemStack getColorizer(IWorldReader world, BlockPos pos) {
+		IChunk chunk = world.getChunk(pos);
+		if (chunk instanceof Chunk) {
+			return ((Chunk) chunk).getCapability(ConjuredChunkData.CAPABILITY)
+					.map(data -> data.getColorizer(pos))
+					.orElse(ItemStack.EMPTY);
+		}
+		return ItemStack.EMPTY;
+	}
+
+	/**
+	 * @return the amount of conjured blocks and of timed ones among them in the loaded chunks of the given world
+	 */
+	public static int[] countLoaded(IWorld world) {
+		WorldData worldData = worlds.get(world);
+		int[] counts = new int[2];
+		if (worldData != null) {
+			for (ConjuredChunkData data : worldData.loaded) {
+				counts[0] += data.size();
+				counts[1] += data.countTimed();
+			}
+		}
+		return counts;
+	}
+
+	@SubscribeEvent
+	public static void onWorldTick(TickEvent.WorldTickEvent event) {
+		if (event.side.isServer() && event.phase == TickEvent.Phase.END) {
+			WorldData worldData = worlds.get(event.world);
+			if (worldData == null) {
+				return;
+			}
+
+			World world = event.world;
+			long time = world.getGameTime();
+			while (!worldData.wheel.isEmpty() && worldData.wheel.firstLongKey() <= time) {
+				for (ConjuredChunkData data : worldData.wheel.remove(worldData.wheel.firstLongKey())) {
+					data.setScheduledTick(Long.MAX_VALUE);
+					if (!data.isUnloaded()) {
+						removeExpired(world, data, time);
+						worldData.schedule(data);
+					}
+				}
+			}
+
+			for (ConjuredChunkData data : worldData.dirty) {
+				if (!data.isUnloaded()) {
+					MessageRegister.HANDLER.send(PacketDistributor.TRACKING_CHUNK.with(data::getChunk), new MessageConjuredSync(data));
+					data.clearDirty();
+				}
+			}
+			worldData.dirty.clear();
+			worldData.loaded.removeIf(data -> data.size() == 0);
+		}
+	}
+
+	/**
+	 * Removes all the blocks of a chunk that are due in one pass, deferring neighbour updates until they're all gone.
+	 */
+	private static void removeExpired(World world, ConjuredChunkData data, long time) {
+		List<BlockPos> due = data.pollExpired(time);
+		if (due.isEmpty()) {
+			return;
+		}
+
+		BlockMutationBatch batch = new BlockMutationBatch(world);
+		for (BlockPos pos : due) {
+			if (world.getBlockState(pos).getBlock() == ModBlocks.conjured) {
+				batch.removeBlock(pos, false);
+			}
+			// In case something replaced the block without going through onReplaced
+			data.remove(pos);
+		}
+		batch.flush();
+		if (data.isDirty()) {
+			getData(world).dirty.add(data);
+		}
+	}
+
+	@SubscribeEvent
+	public static void onChunkLoad(ChunkEvent.Load event) {
+		if (!event.getWorld().isRemote() && event.getChunk() instanceof Chunk) {
+			((Chunk) event.getChunk()).getCapability(ConjuredChunkData.CAPABILITY).ifPresent(data -> {
+				if (data.size() > 0) {
+					WorldData worldData = getData(event.getWorld());
+					worldData.loaded.add(data);
+					// Anything that expired while the chunk was unloaded goes on the next tick
+					worldData.schedule(data);
+				}
+			});
+		}
+	}
+
+	@SubscribeEvent
+	public static void onChunkUnload(ChunkEvent.Unload event) {
+		if (!event.getWorld().isRemote() && event.getChunk() instanceof Chunk) {
+			WorldData worldData = worlds.get(event.getWorld());
+			if (worldData != null) {
+				((Chunk) event.getChunk()).getCapability(ConjuredChunkData.CAPABILITY).ifPresent(data -> {
+					// The chunk is rescheduled from its saved data when it loads again
+					data.markUnloaded();
+					worldData.loaded.remove(data);
+					worldData.dirty.remove(data);
+					worldData.unschedule(data);
+				});
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public static void onChunkWatch(ChunkWatchEvent.Watch event) {
+		ServerPlayerEntity player = event.getPlayer();
+		Chunk chunk = event.getWorld().getChunkProvider().getChunk(event.getPos().x, event.getPos().z, false);
+		if (chunk != null) {
+			chunk.getCapability(ConjuredChunkData.CAPABILITY).ifPresent(data -> {
+				if (data.size() > 0) {
+					MessageRegister.sendToPlayer(new MessageConjuredSync(data), player);
+				}
+			});
+		}
+	}
+
+}
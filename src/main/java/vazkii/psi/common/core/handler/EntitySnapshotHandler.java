@@ -0,0 +1,151 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.core.handler;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.SectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import vazkii.psi.common.lib.LibMisc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Snapshots of the entities in each chunk section, shared by every entity query spells make within a tick.
+ * The first query to touch a section copies its entity list, and every later one that tick reads the copy
+ * instead of walking the chunk again. A snapshot is taken again if the section's entity count changed since,
+ * so entities spawned by an earlier spell in the same tick are still seen, and everything is dropped at the
+ * end of the tick.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public class EntitySnapshotHandler {
+	/** How many entity sections a chunk has, entities outside of them are kept in the top or bottom one */
+	public static final int SECTIONS = 16;
+
+	private static final Map<World, WorldData> worlds = new WeakHashMap<>();
+
+	private static long snapshots;
+	private static long reused;
+
+	private static class WorldData {
+		private final Long2ObjectMap<List<Entity>> sections = new Long2ObjectOpenHashMap<>();
+		private long time = Long.MIN_VALUE;
+	}
+
+	/**
+	 * Gets the entities whose bounding box intersects the given area and that match the predicate. Equivalent
+	 * to {@link World#getEntitiesWithinAABB(Class, AxisAlignedBB, Predicate)} for {@link Entity}, minus the
+	 * entities that were removed from the world earlier this tick.
+	 */
+	public static List<Entity> getEntitiesWithinAABB(World world, AxisAlignedBB area, Predicate<? super Entity> predicate) {
+		List<Entity> entities = new ArrayList<>();
+		forEachEntityWithinAABB(world, area, predicate, entities::add);
+		return entities;
+	}
+
+	/**
+	 * Same as {@link #getEntitiesWithinAABB(World, AxisAlignedBB, Predicate)}, but hands the entities to the
+	 * action as they're found instead of collecting them.
+	 */
+	public static void forEachEntityWithinAABB(World world, AxisAlignedBB area, Predicate<? super Entity> predicate, Consumer<Entity> action) {
+		double margin = world.getMaxEntityRadius();
+		int minX = MathHelper.floor((area.minX - margin) / 16.0D);
+		int maxX = MathHelper.ceil((area.maxX + margin) / 16.0D);
+		int minY = MathHelper.clamp(MathHelper.floor((area.minY - margin) / 16.0D), 0, SECTIONS - 1);
+		int maxY = MathHelper.clamp(MathHelper.floor((area.maxY + margin) / 16.0D), 0, SECTIONS - 1);
+		int minZ = MathHelper.floor((area.minZ - margin) / 16.0D);
+		int maxZ = MathHelper.ceil((area.maxZ + margin) / 16.0D);
+
+		for (int cx = minX; cx < maxX; cx++) {
+			for (int cz = minZ; cz < maxZ; cz++) {
+				for (int cy = minY; cy <= maxY; cy++) {
+					for (Entity entity : getSection(world, cx, cy, cz)) {
+						if (!entity.removed && entity.getBoundingBox().intersects(area) && (predicate == null || predicate.test(entity))) {
+							action.accept(entity);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the entities stored in the given chunk section as of this tick, or an empty list if the chunk isn't loaded.
+	 * The section y is clamped like the chunk itself does. The list is shared and must not be modified.
+	 */
+	public static List<Entity> getSection(World world, int cx, int cy, int cz) {
+		Chunk chunk = world.getChunkProvider().getChunk(cx, cz, false);
+		if (chunk == null) {
+			return Collections.emptyList();
+		}
+
+		ClassInheritanceMultiMap<Entity>[] lists = chunk.getEntityLists();
+		cy = MathHelper.clamp(cy, 0, lists.length - 1);
+
+		WorldData data = worlds.computeIfAbsent(world, w -> new WorldData());
+		long time = world.getGameTime();
+		if (data.time != time) {
+			data.sections.clear();
+			data.time = time;
+		}
+
+		ClassInheritanceMultiMap<Entity> live = lists[cy];
+		long key = SectionPos.asLong(cx, cy, cz);
+		List<Entity> snapshot = data.sections.get(key);
+		if (snapshot != null && snapshot.size() == live.size()) {
+			reused++;
+			return snapshot;
+		}
+
+		snapshot = new ArrayList<>(live.size());
+		for (Entity entity : live) {
+			snapshot.add(entity);
+		}
+		data.sections.put(key, snapshot);
+		snapshots++;
+		return snapshot;
+	}
+
+	/**
+	 * @return the number of section snapshots taken and the number of times one was reused since the last call
+	 */
+	public static long[] pollCounts() {
+		long[] counts = { snapshots, reused };
+		snapshots = 0;
+		reused = 0;
+		return counts;
+	}
+
+	@SubscribeEvent
+	public static void onWorldTick(TickEvent.WorldTickEvent event) {
+		if (event.phase == TickEvent.Phase.END) {
+			WorldData data = worlds.get(event.world);
+			if (data != null) {
+				data.sections.clear();
+			}
+		}
+	}
+
+}
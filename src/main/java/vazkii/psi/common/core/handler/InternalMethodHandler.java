@@ -13,10 +13,13 @@
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.FontRenderer;
 import net.minecraft.client.renderer.RenderType;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.text.ITextComponent;
+import net.minecraft.world.World;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 import net.minecraftforge.fml.client.gui.GuiUtils;
@@ -24,16 +27,26 @@
 import vazkii.psi.api.internal.IInternalMethodHandler;
 import vazkii.psi.api.internal.IPlayerData;
 import vazkii.psi.api.spell.CompiledSpell;
+import vazkii.psi.api.spell.IBlockMutationBatch;
 import vazkii.psi.api.spell.ISpellCache;
 import vazkii.psi.api.spell.ISpellCompiler;
+import vazkii.psi.api.spell.ISpellProfiler;
+import vazkii.psi.api.spell.ISpellTracer;
+import vazkii.psi.api.spell.IWorldReadCache;
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.api.spell.SpellPiece;
 import vazkii.psi.client.gui.GuiProgrammer;
 import vazkii.psi.common.item.ItemCAD;
+import vazkii.psi.common.spell.BlockMutationBatch;
 import vazkii.psi.common.spell.SpellCache;
 import vazkii.psi.common.spell.SpellCompiler;
+import vazkii.psi.common.spell.SpellProfiler;
+import vazkii.psi.common.spell.SpellScheduler;
+import vazkii.psi.common.spell.WorldReadCache;
+import vazkii.psi.common.spell.trace.SpellTraceRecorder;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 public final class InternalMethodHandler implements IInternalMethodHandler {
 
@@ -71,11 +84,41 @@ public void delayContext(SpellContext context) {
 		}
 	}
 
+	@Override
+	public void scheduleSpell(SpellContext context) {
+		SpellScheduler.schedule(context);
+	}
+
+	@Override
+	public IBlockMutationBatch createBlockMutationBatch(World world, IWorldReadCache readCache) {
+		return new BlockMutationBatch(world, readCache);
+	}
+
+	@Override
+	public IWorldReadCache createWorldReadCache(World world) {
+		return new WorldReadCache(world);
+	}
+
 	@Override
 	public void setCrashData(CompiledSpell spell, SpellPiece piece) {
 		CrashReportHandler.setSpell(spell, piece);
 	}
 
+	@Override
+	public ISpellProfiler getSpellProfiler() {
+		return SpellProfiler.getActive();
+	}
+
+	@Override
+	public ISpellTracer getSpellTracer() {
+		return SpellTraceRecorder.getActive();
+	}
+
+	@Override
+	public List<Entity> getEntitiesWithinAABB(World world, AxisAlignedBB area, Predicate<? super Entity> predicate) {
+		return EntitySnapshotHandler.getEntitiesWithinAABB(world, area, predicate);
+	}
+
 	@Override
 	@OnlyIn(Dist.CLIENT)
 	public void renderTooltip(MatrixStack ms, int x, int y, List<ITextComponent> tooltipData, int color, int color2, int width, int height) {
@@ -11,7 +11,11 @@
 import com.google.common.collect.ImmutableSet;
 import com.mojang.blaze3d.matrix.MatrixStack;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
 import net.minecraft.advancements.Advancement;
+import net.minecraft.advancements.AdvancementProgress;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.IRenderTypeBuffer;
 import net.minecraft.client.renderer.entity.EntityRendererManager;
@@ -19,13 +23,16 @@
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.network.play.server.SPlayerPositionLookPacket.Flags;
+import net.minecraft.resources.IFutureReloadListener;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.Hand;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.SoundCategory;
+import net.minecraft.util.Unit;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.DimensionType;
 import net.minecraftforge.api.distmarker.Dist;
@@ -33,6 +40,7 @@
 import net.minecraftforge.client.event.FOVUpdateEvent;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.AddReloadListenerEvent;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.living.LivingEvent.LivingJumpEvent;
 import net.minecraftforge.event.entity.living.LivingEvent.LivingUpdateEvent;
@@ -45,6 +53,7 @@
 import vazkii.psi.api.cad.EnumCADStat;
 import vazkii.psi.api.cad.ICAD;
 import vazkii.psi.api.cad.ICADColorizer;
+import vazkii.psi.api.cad.ICADData;
 import vazkii.psi.api.cad.ISocketable;
 import vazkii.psi.api.cad.RegenPsiEvent;
 import vazkii.psi.api.exosuit.IPsiEventArmor;
@@ -68,7 +77,7 @@
 import vazkii.psi.common.lib.LibMisc;
 import vazkii.psi.common.network.MessageRegister;
 import vazkii.psi.common.network.message.MessageDataSync;
-import vazkii.psi.common.network.message.MessageDeductPsi;
+import vazkii.psi.common.network.message.MessagePsiSync;
 import vazkii.psi.common.network.message.MessageTriggerJumpSpell;
 
 import javax.annotation.Nonnull;
@@ -76,6 +85,9 @@
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -88,6 +100,13 @@ public class PlayerDataHandler {
 	private static final WeakHashMap<PlayerEntity, PlayerData> remotePlayerData = new WeakHashMap<>();
 	private static final WeakHashMap<PlayerEntity, PlayerData> playerData = new WeakHashMap<>();
 	public static final Set<SpellContext> delayedContexts = new LinkedHashSet<>();
+	private static final Set<PlayerEntity> pendingSync = Collections.newSetFromMap(new WeakHashMap<>());
+	/** Indices of the piece groups checked so far in the players' advancement progress caches */
+	private static final Object2IntMap<ResourceLocation> groupOrdinals = new Object2IntOpenHashMap<>();
+
+	static {
+		groupOrdinals.defaultReturnValue(-1);
+	}
 
 	private static final String DATA_TAG = "PsiData";
 
@@ -113,6 +132,27 @@ public static PlayerData get(PlayerEntity player) {
 		return data;
 	}
 
+	/**
+	 * Queues the player's Psi and CAD state to be sent to them at the end of the tick.
+	 */
+	public static void requestSync(PlayerEntity player) {
+		if (player instanceof ServerPlayerEntity) {
+			pendingSync.add(player);
+		}
+	}
+
+	/**
+	 * Gets the index of a piece group in the advancement progress caches, assigning the next one if it has none yet.
+	 */
+	public static synchronized int getGroupOrdinal(ResourceLocation group) {
+		int ordinal = groupOrdinals.getInt(group);
+		if (ordinal == -1) {
+			ordinal = groupOrdinals.size();
+			groupOrdinals.put(group, ordinal);
+		}
+		return ordinal;
+	}
+
 	public static CompoundNBT getDataCompoundForPlayer(PlayerEntity player) {
 		CompoundNBT forgeData = player.getPersistentData();
 		if (!forgeData.contains(PlayerEntity.PERSISTED_NBT_TAG)) {
@@ -143,6 +183,11 @@ public static void onServerTick(TickEvent.ServerTickEvent event) {
 						context.cspell.safeExecute(context);
 					}
 				}
+
+				for (PlayerEntity player : pendingSync) {
+					get(player).flushSync();
+				}
+				pendingSync.clear();
 			}
 		}
 
@@ -187,6 +232,13 @@ public static void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
 			}
 		}
 
+		@SubscribeEvent
+		public static void onAddReloadListeners(AddReloadListenerEvent event) {
+			// Reloading data packs gives every player new advancement progress, so what was looked up before is dropped
+			event.addListener((IFutureReloadListener) (stage, manager, preparationsProfiler, reloadProfiler, backgroundExecutor, gameExecutor) -> stage.markCompleteAwaitingOthers(Unit.INSTANCE)
+					.thenRunAsync(() -> playerData.values().forEach(PlayerData::forgetAdvancements), gameExecutor));
+		}
+
 		@SubscribeEvent
 		public static void onEntityJump(LivingJumpEvent event) {
 			if (event.getEntityLiving() instanceof PlayerEntity && event.getEntity().world.isRemote) {
@@ -267,7 +319,10 @@ public static class PlayerData implements IPlayerData {
 
 		public boolean loopcasting = false;
 		public Hand loopcastHand = null;
-		public ItemStack lastTickLoopcastStack;
+		/** What was loopcast last tick, to stop if it changes. Kept instead of a copy of the whole held stack */
+		private Item lastTickLoopcastItem;
+		private int lastTickLoopcastSlot;
+		private ItemStack lastTickLoopcastBullet = ItemStack.EMPTY;
 
 		public int loopcastTime = 1;
 		public int loopcastAmount = 0;
@@ -297,6 +352,16 @@ public static class PlayerData implements IPlayerData {
 		// Custom Data
 		private CompoundNBT customData;
 
+		// Progress of the piece group advancements, and which of them were looked up, by group ordinal. Server side only.
+		// The progress is kept rather than whether it's done, so granting and revoking is seen without any event
+		private AdvancementProgress[] groupProgress = new AdvancementProgress[0];
+		private final BitSet checkedGroups = new BitSet();
+
+		// Changes waiting for the end of tick sync
+		private int syncMask;
+		private int syncDeductedFrom = -1;
+		private boolean syncShatter;
+
 		private PlayerData() {
 			playerWR = new WeakReference<>(null);
 			client = true;
@@ -371,34 +436,21 @@ public void tick() {
 						break loopcast;
 					}
 
-					if (lastTickLoopcastStack != null) {
-						if (!ItemStack.areItemsEqual(lastTickLoopcastStack, stackInHand) ||
-								!ISocketable.isSocketable(lastTickLoopcastStack)) {
+					ISocketable socketable = ISocketable.socketable(stackInHand);
+					int thisSlot = socketable.getSelectedSlot();
+					// Bullets read from a socket share the socket's NBT, so this is an identity check unless it was rewritten
+					ItemStack thisTick = socketable.getBulletInSocket(thisSlot);
+
+					if (lastTickLoopcastItem != null) {
+						if (lastTickLoopcastItem != stackInHand.getItem() ||
+								lastTickLoopcastSlot != thisSlot ||
+								!ItemStack.areItemStacksEqual(lastTickLoopcastBullet, thisTick)) {
 							stopLoopcast();
 							break loopcast;
-						} else {
-							ISocketable lastTickItem = ISocketable.socketable(lastTickLoopcastStack);
-							ISocketable thisTickItem = ISocketable.socketable(stackInHand);
-
-							int lastSlot = lastTickItem.getSelectedSlot();
-							int thisSlot = thisTickItem.getSelectedSlot();
-							if (lastSlot != thisSlot) {
-								stopLoopcast();
-								break loopcast;
-							}
-
-							ItemStack lastTick = lastTickItem.getBulletInSocket(lastSlot);
-							ItemStack thisTick = thisTickItem.getBulletInSocket(thisSlot);
-							if (!ItemStack.areItemStacksEqual(lastTick, thisTick)) {
-								stopLoopcast();
-								break loopcast;
-							}
 						}
 					}
 
-					lastTickLoopcastStack = stackInHand.copy();
-
-					ISocketable socketable = ISocketable.socketable(stackInHand);
+					setLastTickLoopcast(stackInHand.getItem(), thisSlot, thisTick);
 
 					for (int i = 0; i < 5; i++) {
 						double x = player.getPosX() + (Math.random() - 0.5) * 2.1 * player.getWidth();
@@ -598,6 +650,27 @@ private void applyRegen(PlayerEntity player, int max, ItemStack cadStack) {
 			}
 		}
 
+		/**
+		 * Remembers the stack as what's being loopcast, so the loopcast doesn't stop when a spell
+		 * changes the selected slot itself.
+		 */
+		public void setLastTickLoopcast(ItemStack stack) {
+			ISocketable socketable = ISocketable.socketable(stack);
+			int slot = socketable.getSelectedSlot();
+			setLastTickLoopcast(stack.getItem(), slot, socketable.getBulletInSocket(slot));
+		}
+
+		private void setLastTickLoopcast(Item item, int slot, ItemStack bullet) {
+			lastTickLoopcastItem = item;
+			lastTickLoopcastSlot = slot;
+			lastTickLoopcastBullet = bullet;
+		}
+
+		public void clearLastTickLoopcast() {
+			lastTickLoopcastItem = null;
+			lastTickLoopcastBullet = ItemStack.EMPTY;
+		}
+
 		public void stopLoopcast() {
 			PlayerEntity player = playerWR.get();
 
@@ -607,7 +680,7 @@ public void stopLoopcast() {
 			}
 			loopcasting = false;
 
-			lastTickLoopcastStack = null;
+			clearLastTickLoopcast();
 			loopcastHand = null;
 
 			loopcastTime = 1;
@@ -641,6 +714,8 @@ public void deductPsi(int psi, int cd, boolean sync) {
 		@Override
 		public void deductPsi(int psi, int cd, boolean sync, boolean shatter) {
 			int currentPsi = availablePsi;
+			int currentCd = regenCooldown;
+			boolean wasOverflowed = overflowed;
 
 			PlayerEntity player = playerWR.get();
 			if (player == null) {
@@ -681,13 +756,54 @@ public void deductPsi(int psi, int cd, boolean sync, boolean shatter) {
 			}
 
 			if (sync && player instanceof ServerPlayerEntity) {
-				MessageDeductPsi message = new MessageDeductPsi(currentPsi, availablePsi, regenCooldown, shatter);
-				MessageRegister.sendToPlayer(message, player);
+				// Several deductions in the same tick show up as a single one
+				if (syncDeductedFrom < 0) {
+					syncDeductedFrom = currentPsi;
+				}
+				syncShatter |= shatter;
+				syncMask |= MessagePsiSync.PSI;
+				if (regenCooldown != currentCd) {
+					syncMask |= MessagePsiSync.REGEN_COOLDOWN;
+				}
+				if (overflowed != wasOverflowed) {
+					syncMask |= MessagePsiSync.OVERFLOWED;
+				}
+				requestSync(player);
 			}
 
 			save();
 		}
 
+		/**
+		 * Sends everything that changed this tick in a single packet.
+		 */
+		public void flushSync() {
+			PlayerEntity player = playerWR.get();
+			if (!(player instanceof ServerPlayerEntity)) {
+				return;
+			}
+
+			int mask = syncMask;
+			int[] vectorSlots = new int[0];
+			ICADData cadData = getCAD().getCapability(PsiAPI.CAD_DATA_CAPABILITY).orElse(null);
+			if (cadData != null && cadData.isDirty()) {
+				mask |= MessagePsiSync.CAD_TIME | MessagePsiSync.CAD_BATTERY;
+				vectorSlots = cadData.pollDirtyVectorSlots();
+				if (vectorSlots.length > 0) {
+					mask |= MessagePsiSync.CAD_VECTORS;
+				}
+				cadData.markDirty(false);
+			}
+
+			if (mask != 0) {
+				MessageRegister.sendToPlayer(new MessagePsiSync(mask, this, syncDeductedFrom, syncShatter, cadData, vectorSlots), player);
+			}
+
+			syncMask = 0;
+			syncDeductedFrom = -1;
+			syncShatter = false;
+		}
+
 		public void addDeduction(int current, int deduct, boolean shatter) {
 			if (deduct > current) {
 				deduct = current;
@@ -735,7 +851,28 @@ public int getRegenCooldown() {
 
 		public boolean hasAdvancement(ResourceLocation group) {
 			PlayerEntity player = playerWR.get();
-			return Psi.proxy.hasAdvancement(group, player);
+			if (!(player instanceof ServerPlayerEntity)) {
+				return Psi.proxy.hasAdvancement(group, player);
+			}
+
+			int ordinal = getGroupOrdinal(group);
+			if (!checkedGroups.get(ordinal)) {
+				ServerPlayerEntity serverPlayer = (ServerPlayerEntity) player;
+				Advancement advancement = serverPlayer.getServer().getAdvancementManager().getAdvancement(group);
+				if (ordinal >= groupProgress.length) {
+					groupProgress = Arrays.copyOf(groupProgress, Math.max(ordinal + 1, groupProgress.length * 2));
+				}
+				groupProgress[ordinal] = advancement == null ? null : serverPlayer.getAdvancements().getProgress(advancement);
+				checkedGroups.set(ordinal);
+			}
+
+			AdvancementProgress progress = groupProgress[ordinal];
+			return progress != null && progress.isDone();
+		}
+
+		private void forgetAdvancements() {
+			Arrays.fill(groupProgress, null);
+			checkedGroups.clear();
 		}
 
 		@Override
@@ -857,7 +994,8 @@ public void render(PlayerEntity player, float partTicks, MatrixStack ms) {
 			double z = player.lastTickPosZ + (player.getPosZ() - player.lastTickPosZ) * partTicks - renderManager.info.getProjectedView().z;
 			float scale = 0.75F;
 			if (loopcasting) {
-				float mul = Math.min(5F, loopcastTime + partTicks) / 5F;
+				// loopcastTime starts below 1 when the phase is shifted, the circle only grows once it's positive
+				float mul = Math.max(0F, Math.min(5F, loopcastTime + partTicks) / 5F);
 				scale *= mul;
 			} else if (loopcastFadeTime > 0) {
 				float mul = Math.min(5F, loopcastFadeTime - partTicks) / 5F;
@@ -869,8 +1007,7 @@ public void render(PlayerEntity player, float partTicks, MatrixStack ms) {
 			int color = ICADColorizer.DEFAULT_SPELL_COLOR;
 			ItemStack cad = PsiAPI.getPlayerCAD(playerWR.get());
 			if (!cad.isEmpty() && cad.getItem() instanceof ICAD) {
-				ICAD icad = (ICAD) cad.getItem();
-				color = icad.getSpellColor(cad);
+				color = Psi.proxy.getColorForCAD(cad);
 			}
 
 			ms.push();
@@ -0,0 +1,170 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.core.handler;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.SectionPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.entity.living.LivingEvent.LivingUpdateEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import vazkii.psi.common.entity.EntitySpellMine;
+import vazkii.psi.common.lib.LibMisc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps the spell mines of each world bucketed by the chunk section they're in, so all the mines of a section
+ * share a single entity query instead of doing one each. The first mine of a section to tick looks up the living
+ * entities around every mine in it, and each mine then picks the ones touching its own trigger area. The lookup
+ * is dropped as soon as a living entity ticks or joins the world, or a spell runs, since any of those can move
+ * something into a mine's area, so every mine sees what a query of its own would. Server side only, mines on
+ * the client query their own area.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public class SpellMineHandler {
+	private static final Map<World, WorldData> worlds = new WeakHashMap<>();
+
+	private static class WorldData {
+		private final Long2ObjectMap<Set<EntitySpellMine>> sections = new Long2ObjectOpenHashMap<>();
+		private final Long2ObjectMap<Sweep> sweeps = new Long2ObjectOpenHashMap<>();
+		private long sweepTime = Long.MIN_VALUE;
+	}
+
+	private static class Sweep {
+		private final AxisAlignedBB area;
+		private final List<LivingEntity> entities;
+
+		private Sweep(AxisAlignedBB area, List<LivingEntity> entities) {
+			this.area = area;
+			this.entities = entities;
+		}
+	}
+
+	public static AxisAlignedBB getTriggerArea(EntitySpellMine mine) {
+		return mine.getBoundingBox().grow(1, 1, 1);
+	}
+
+	/**
+	 * Gets the living entities touching the trigger area of the mine, in the order a query of just that area would
+	 * return them. Also moves the mine to its current section if it left the one it was registered in.
+	 */
+	public static List<LivingEntity> getEntitiesInRange(EntitySpellMine mine) {
+		World world = mine.getEntityWorld();
+		if (world.isRemote) {
+			return world.getEntitiesWithinAABB(LivingEntity.class, getTriggerArea(mine));
+		}
+
+		WorldData data = worlds.computeIfAbsent(world, w -> new WorldData());
+
+		long section = SectionPos.asLong(MathHelper.floor(mine.getPosX()) >> 4, MathHelper.floor(mine.getPosY()) >> 4, MathHelper.floor(mine.getPosZ()) >> 4);
+		if (mine.section != section) {
+			remove(data, mine);
+			mine.section = section;
+			data.sections.computeIfAbsent(section, s -> Collections.newSetFromMap(new IdentityHashMap<>())).add(mine);
+		}
+
+		long time = world.getGameTime();
+		if (data.sweepTime != time) {
+			data.sweeps.clear();
+			data.sweepTime = time;
+		}
+
+		AxisAlignedBB area = getTriggerArea(mine);
+		Sweep sweep = data.sweeps.computeIfAbsent(section, s -> sweep(world, data.sections.get(s)));
+		if (!contains(sweep.area, area)) {
+			// Moved further than the others expected this tick
+			return world.getEntitiesWithinAABB(LivingEntity.class, area);
+		}
+
+		List<LivingEntity> entities = new ArrayList<>();
+		for (LivingEntity entity : sweep.entities) {
+			if (entity.getBoundingBox().intersects(area)) {
+				entities.add(entity);
+			}
+		}
+		return entities;
+	}
+
+	private static Sweep sweep(World world, Set<EntitySpellMine> mines) {
+		AxisAlignedBB area = null;
+		for (EntitySpellMine mine : mines) {
+			AxisAlignedBB mineArea = getTriggerArea(mine);
+			area = area == null ? mineArea : area.union(mineArea);
+		}
+		return new Sweep(area, world.getEntitiesWithinAABB(LivingEntity.class, area));
+	}
+
+	private static boolean contains(AxisAlignedBB outer, AxisAlignedBB inner) {
+		return outer.minX <= inner.minX && outer.minY <= inner.minY && outer.minZ <= inner.minZ
+				&& outer.maxX >= inner.maxX && outer.maxY >= inner.maxY && outer.maxZ >= inner.maxZ;
+	}
+
+	/**
+	 * Drops the entity lookups of the world, as something in it may have moved.
+	 */
+	public static void invalidate(World world) {
+		WorldData data = worlds.get(world);
+		if (data != null) {
+			data.sweeps.clear();
+		}
+	}
+
+	@SubscribeEvent
+	public static void onLivingUpdate(LivingUpdateEvent event) {
+		// Living entities move in their own tick, and carry their passengers along
+		if (!event.getEntity().world.isRemote) {
+			invalidate(event.getEntity().world);
+		}
+	}
+
+	@SubscribeEvent
+	public static void onEntityJoinWorld(EntityJoinWorldEvent event) {
+		if (event.getEntity() instanceof LivingEntity && !event.getWorld().isRemote) {
+			invalidate(event.getWorld());
+		}
+	}
+
+	public static void removed(EntitySpellMine mine) {
+		WorldData data = mine.getEntityWorld().isRemote ? null : worlds.get(mine.getEntityWorld());
+		if (data != null) {
+			remove(data, mine);
+		}
+		mine.section = EntitySpellMine.NO_SECTION;
+	}
+
+	private static void remove(WorldData data, EntitySpellMine mine) {
+		if (mine.section == EntitySpellMine.NO_SECTION) {
+			return;
+		}
+
+		Set<EntitySpellMine> mines = data.sections.get(mine.section);
+		if (mines != null) {
+			mines.remove(mine);
+			if (mines.isEmpty()) {
+				data.sections.remove(mine.section);
+			}
+		}
+		data.sweeps.remove(mine.section);
+	}
+
+}
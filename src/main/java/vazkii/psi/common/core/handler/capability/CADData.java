@@ -10,6 +10,9 @@
 
 import com.google.common.collect.Lists;
 
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundNBT;
@@ -41,6 +44,7 @@ public class CADData implements ICapabilityProvider, ICADData, ISpellAcceptor, I
 	private int time;
 	private int battery;
 	private List<Vector3> vectors = Lists.newArrayList();
+	private final IntSet dirtyVectors = new IntOpenHashSet();
 
 	private boolean dirty;
 
@@ -102,6 +106,8 @@ public void setSavedVector(int memorySlot, Vector3 value) {
 		}
 
 		vectors.set(memorySlot, value);
+		dirtyVectors.add(memorySlot);
+		dirty = true;
 	}
 
 	@Override
@@ -182,6 +188,13 @@ public CompoundNBT serializeForSynchronization() {
 		return compound;
 	}
 
+	@Override
+	public int[] pollDirtyVectorSlots() {
+		int[] slots = dirtyVectors.toIntArray();
+		dirtyVectors.clear();
+		return slots;
+	}
+
 	@Override
 	public CompoundNBT serializeNBT() {
 		CompoundNBT compound = serializeForSynchronization();
@@ -14,6 +14,7 @@
 import net.minecraft.nbt.INBT;
 import net.minecraft.util.Direction;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityManager;
 import net.minecraftforge.common.util.INBTSerializable;
@@ -43,6 +44,7 @@ public static void register() {
 		register(ICADData.class, CapabilityHandler::noDefault);
 		register(ISocketable.class, SocketWheel::new);
 		register(ISpellAcceptor.class, SpellHolder::new);
+		register(ConjuredChunkData.class, CapabilityHandler::noDefault);
 
 		registerSingleDefault(IDetonationHandler.class, () -> {});
 		registerSingleDefault(IPsiBarDisplay.class, data -> false);
@@ -84,6 +86,7 @@ public void readNBT(Capability<T> capability, T instance, Direction side, INBT n
 	private static final ResourceLocation SPELL_IMMUNE = new ResourceLocation(LibMisc.MOD_ID, "immune");
 	private static final ResourceLocation DETONATOR = new ResourceLocation(LibMisc.MOD_ID, "detonator");
 	public static final ResourceLocation TRIGGER_SENSOR = new ResourceLocation(LibMisc.MOD_ID, "trigger_sensor");
+	private static final ResourceLocation CONJURED = new ResourceLocation(LibMisc.MOD_ID, "conjured");
 
 	@SubscribeEvent
 	public static void attachEntityCapabilities(AttachCapabilitiesEvent<Entity> event) {
@@ -100,4 +103,9 @@ public static void attachEntityCapabilities(AttachCapabilitiesEvent<Entity> even
 		}
 	}
 
+	@SubscribeEvent
+	public static void attachChunkCapabilities(AttachCapabilitiesEvent<Chunk> event) {
+		event.addCapability(CONJURED, new ConjuredChunkData(event.getObject()));
+	}
+
 }
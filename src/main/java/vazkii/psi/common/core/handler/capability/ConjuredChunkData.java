@@ -0,0 +1,345 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.core.handler.capability;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectSortedMap;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityInject;
+import net.minecraftforge.common.capabilities.ICapabilitySerializable;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.common.util.LazyOptional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conjured block data for a whole chunk: a palette of the colorizers used in it, the palette
+ * index of every conjured block, and a queue of the timed ones ordered by expiry time.
+ */
+public class ConjuredChunkData implements ICapabilitySerializable<CompoundNBT> {
+
+	@CapabilityInject(ConjuredChunkData.class)
+	public static Capability<ConjuredChunkData> CAPABILITY = null;
+
+	private static final String TAG_PALETTE = "palette";
+	private static final String TAG_BLOCKS = "blocks";
+	private static final String TAG_EXPIRY_POSITIONS = "expiryPositions";
+	private static final String TAG_EXPIRY_TIMES = "expiryTimes";
+
+	private final Chunk chunk;
+	private final LazyOptional<ConjuredChunkData> optional = LazyOptional.of(() -> this);
+
+	private final List<ItemStack> palette = new ArrayList<>();
+	private final IntList paletteUses = new IntArrayList();
+	/** Packed local position to palette index */
+	private final Int2IntMap blocks = new Int2IntOpenHashMap();
+	/** Packed local position to expiry time */
+	private final Int2LongMap expiries = new Int2LongOpenHashMap();
+	/** Expiry time to packed local positions */
+	private final Long2ObjectSortedMap<IntList> expiryQueue = new Long2ObjectRBTreeMap<>();
+
+	private boolean dirty;
+	private boolean unloaded;
+	/** The tick this chunk is filed under in the expiry wheel of its world, or {@link Long#MAX_VALUE} if none */
+	private long scheduledTick = Long.MAX_VALUE;
+
+	public ConjuredChunkData(Chunk chunk) {
+		this.chunk = chunk;
+	}
+
+	public static ConjuredChunkData get(Chunk chunk) {
+		return chunk.getCapability(CAPABILITY).orElseThrow(IllegalStateException::new);
+	}
+
+	@Nonnull
+	@Override
+	public <T> LazyOptional<T> getCapability(@Nonnull Capability<T> capability, @Nullable Direction side) {
+		return CAPABILITY.orEmpty(capability, optional);
+	}
+
+	public Chunk getChunk() {
+		return chunk;
+	}
+
+	public static int pack(BlockPos pos) {
+		return (pos.getX() & 15) << 12 | (pos.getZ() & 15) << 8 | (pos.getY() & 255);
+	}
+
+	public BlockPos unpack(int packed) {
+		return chunk.getPos().asBlockPos().add(packed >> 12 & 15, packed & 255, packed >> 8 & 15);
+	}
+
+	/**
+	 * Registers a newly conjured block.
+	 *
+	 * @param expiry the game time at which the block should disappear, or 0 if it's permanent
+	 */
+	public void add(BlockPos pos, ItemStack colorizer, long expiry) {
+		int packed = pack(pos);
+		remove(packed);
+
+		blocks.put(packed, getPaletteIndex(colorizer));
+		if (expiry > 0) {
+			expiries.put(packed, expiry);
+			expiryQueue.computeIfAbsent(expiry, t -> new IntArrayList()).add(packed);
+		}
+		markDirty();
+	}
+
+	public void remove(BlockPos pos) {
+		if (remove(pack(pos))) {
+			markDirty();
+		}
+	}
+
+	private boolean remove(int packed) {
+		if (!blocks.containsKey(packed)) {
+			return false;
+		}
+
+		int index = blocks.remove(packed);
+		int uses = paletteUses.getInt(index) - 1;
+		paletteUses.set(index, uses);
+		if (uses <= 0) {
+			palette.set(index, ItemStack.EMPTY);
+		}
+
+		if (expiries.containsKey(packed)) {
+			long expiry = expiries.remove(packed);
+			IntList queued = expiryQueue.get(expiry);
+			if (queued != null) {
+				queued.rem(packed);
+				if (queued.isEmpty()) {
+					expiryQueue.remove(expiry);
+				}
+			}
+		}
+		return true;
+	}
+
+	private int getPaletteIndex(ItemStack colorizer) {
+		int free = -1;
+		for (int i = 0; i < palette.size(); i++) {
+			if (paletteUses.getInt(i) > 0) {
+				if (ItemStack.areItemStacksEqual(palette.get(i), colorizer)) {
+					paletteUses.set(i, paletteUses.getInt(i) + 1);
+					return i;
+				}
+			} else if (free == -1) {
+				free = i;
+			}
+		}
+
+		ItemStack stored = colorizer.copy();
+		if (free != -1) {
+			palette.set(free, stored);
+			paletteUses.set(free, 1);
+			return free;
+		}
+
+		palette.add(stored);
+		paletteUses.add(1);
+		return palette.size() - 1;
+	}
+
+	public ItemStack getColorizer(BlockPos pos) {
+		int packed = pack(pos);
+		return blocks.containsKey(packed) ? palette.get(blocks.get(packed)) : ItemStack.EMPTY;
+	}
+
+	public int size() {
+		return blocks.size();
+	}
+
+	public int countTimed() {
+		return expiries.size();
+	}
+
+	public boolean hasExpiries() {
+		return !expiryQueue.isEmpty();
+	}
+
+	/**
+	 * @return the game time at which the next timed block is due, or {@link Long#MAX_VALUE} if there's none
+	 */
+	public long getNextExpiry() {
+		return expiryQueue.isEmpty() ? Long.MAX_VALUE : expiryQueue.firstLongKey();
+	}
+
+	/**
+	 * Removes the timed blocks that are due at the given game time from the queue, returning their positions.
+	 * The caller is responsible for actually removing the blocks from the world.
+	 */
+	public List<BlockPos> pollExpired(long gameTime) {
+		List<BlockPos> due = new ArrayList<>();
+		while (!expiryQueue.isEmpty() && expiryQueue.firstLongKey() <= gameTime) {
+			IntList queued = expiryQueue.remove(expiryQueue.firstLongKey());
+			for (int i = 0; i < queued.size(); i++) {
+				int packed = queued.getInt(i);
+				expiries.remove(packed);
+				due.add(unpack(packed));
+			}
+		}
+		return due;
+	}
+
+	public long getScheduledTick() {
+		return scheduledTick;
+	}
+
+	public void setScheduledTick(long scheduledTick) {
+		this.scheduledTick = scheduledTick;
+	}
+
+	public boolean isDirty() {
+		return dirty;
+	}
+
+	public void markDirty() {
+		dirty = true;
+		chunk.markDirty();
+	}
+
+	public void clearDirty() {
+		dirty = false;
+	}
+
+	public boolean isUnloaded() {
+		return unloaded;
+	}
+
+	public void markUnloaded() {
+		unloaded = true;
+	}
+
+	public void writeSync(PacketBuffer buf) {
+		buf.writeVarInt(palette.size());
+		for (ItemStack colorizer : palette) {
+			buf.writeItemStack(colorizer);
+		}
+
+		buf.writeVarInt(blocks.size());
+		for (Int2IntMap.Entry entry : blocks.int2IntEntrySet()) {
+			buf.writeVarInt(entry.getIntKey());
+			buf.writeVarInt(entry.getIntValue());
+		}
+	}
+
+	/**
+	 * Replaces the client side data with what the server sent.
+	 *
+	 * @see #writeSync(PacketBuffer)
+	 */
+	public void applySync(List<ItemStack> newPalette, int[] positions, int[] indices) {
+		palette.clear();
+		paletteUses.clear();
+		blocks.clear();
+
+		for (ItemStack colorizer : newPalette) {
+			palette.add(colorizer);
+			paletteUses.add(0);
+		}
+
+		for (int i = 0; i < positions.length; i++) {
+			int index = indices[i];
+			if (index >= 0 && index < palette.size()) {
+				blocks.put(positions[i], index);
+				paletteUses.set(index, paletteUses.getInt(index) + 1);
+			}
+		}
+	}
+
+	@Override
+	public CompoundNBT serializeNBT() {
+		CompoundNBT cmp = new CompoundNBT();
+		if (blocks.isEmpty()) {
+			return cmp;
+		}
+
+		ListNBT paletteList = new ListNBT();
+		for (ItemStack colorizer : palette) {
+			paletteList.add(colorizer.write(new CompoundNBT()));
+		}
+		cmp.put(TAG_PALETTE, paletteList);
+
+		int[] blockArray = new int[blocks.size() * 2];
+		int i = 0;
+		for (Int2IntMap.Entry entry : blocks.int2IntEntrySet()) {
+			blockArray[i++] = entry.getIntKey();
+			blockArray[i++] = entry.getIntValue();
+		}
+		cmp.putIntArray(TAG_BLOCKS, blockArray);
+
+		if (!expiries.isEmpty()) {
+			int[] positions = new int[expiries.size()];
+			long[] times = new long[expiries.size()];
+			int j = 0;
+			for (Int2LongMap.Entry entry : expiries.int2LongEntrySet()) {
+				positions[j] = entry.getIntKey();
+				times[j] = entry.getLongValue();
+				j++;
+			}
+			cmp.putIntArray(TAG_EXPIRY_POSITIONS, positions);
+			cmp.putLongArray(TAG_EXPIRY_TIMES, times);
+		}
+		return cmp;
+	}
+
+	@Override
+	public void deserializeNBT(CompoundNBT cmp) {
+		palette.clear();
+		paletteUses.clear();
+		blocks.clear();
+		expiries.clear();
+		expiryQueue.clear();
+
+		ListNBT paletteList = cmp.getList(TAG_PALETTE, Constants.NBT.TAG_COMPOUND);
+		for (int i = 0; i < paletteList.size(); i++) {
+			palette.add(ItemStack.read(paletteList.getCompound(i)));
+			paletteUses.add(0);
+		}
+
+		int[] blockArray = cmp.getIntArray(TAG_BLOCKS);
+		for (int i = 0; i + 1 < blockArray.length; i += 2) {
+			int index = blockArray[i + 1];
+			if (index >= 0 && index < palette.size()) {
+				blocks.put(blockArray[i], index);
+				paletteUses.set(index, paletteUses.getInt(index) + 1);
+			}
+		}
+
+		int[] positions = cmp.getIntArray(TAG_EXPIRY_POSITIONS);
+		long[] times = cmp.getLongArray(TAG_EXPIRY_TIMES);
+		for (int i = 0; i < Math.min(positions.length, times.length); i++) {
+			if (blocks.containsKey(positions[i])) {
+				expiries.put(positions[i], times[i]);
+				expiryQueue.computeIfAbsent(times[i], t -> new IntArrayList()).add(positions[i]);
+			}
+		}
+	}
+
+}
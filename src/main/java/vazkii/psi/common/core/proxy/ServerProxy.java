@@ -8,6 +8,7 @@
  */
 package vazkii.psi.common.core.proxy;
 
+import net.minecraft.advancements.Advancement;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.util.ResourceLocation;
@@ -61,7 +62,8 @@ public void openProgrammerGUI(TileProgrammer programmer) {
 	public boolean hasAdvancement(ResourceLocation advancement, PlayerEntity playerEntity) {
 		if (playerEntity instanceof ServerPlayerEntity) {
 			ServerPlayerEntity serverPlayerEntity = (ServerPlayerEntity) playerEntity;
-			return serverPlayerEntity.getServer().getAdvancementManager().getAdvancement(advancement) != null && serverPlayerEntity.getAdvancements().getProgress(serverPlayerEntity.getServer().getAdvancementManager().getAdvancement(advancement)).isDone();
+			Advancement adv = serverPlayerEntity.getServer().getAdvancementManager().getAdvancement(advancement);
+			return adv != null && serverPlayerEntity.getAdvancements().getProgress(adv).isDone();
 		}
 		return false;
 	}
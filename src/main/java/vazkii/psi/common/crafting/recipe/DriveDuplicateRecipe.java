@@ -17,7 +17,6 @@
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 
-import vazkii.psi.api.spell.Spell;
 import vazkii.psi.common.item.ItemSpellDrive;
 
 import javax.annotation.Nonnull;
@@ -38,7 +37,7 @@ public boolean matches(@Nonnull CraftingInventory inv, @Nonnull World world) {
 			ItemStack stack = inv.getStackInSlot(i);
 			if (!stack.isEmpty()) {
 				if (stack.getItem() instanceof ItemSpellDrive) {
-					if (ItemSpellDrive.getSpell(stack) == null) {
+					if (!ItemSpellDrive.hasSpell(stack)) {
 						if (foundTarget) {
 							return false;
 						}
@@ -61,15 +60,14 @@ public boolean matches(@Nonnull CraftingInventory inv, @Nonnull World world) {
 	@Nonnull
 	@Override
 	public ItemStack getCraftingResult(@Nonnull CraftingInventory inv) {
-		Spell source = null;
+		ItemStack source = ItemStack.EMPTY;
 		ItemStack target = ItemStack.EMPTY;
 
 		for (int i = 0; i < inv.getSizeInventory(); i++) {
 			ItemStack stack = inv.getStackInSlot(i);
 			if (!stack.isEmpty()) {
-				Spell spell = ItemSpellDrive.getSpell(stack);
-				if (spell != null) {
-					source = spell;
+				if (ItemSpellDrive.hasSpell(stack)) {
+					source = stack;
 				} else {
 					target = stack;
 				}
@@ -77,7 +75,7 @@ public ItemStack getCraftingResult(@Nonnull CraftingInventory inv) {
 		}
 
 		ItemStack copy = target.copy();
-		ItemSpellDrive.setSpell(copy, source);
+		ItemSpellDrive.copySpell(source, copy);
 		return copy;
 	}
 
@@ -87,7 +85,7 @@ public NonNullList<ItemStack> getRemainingItems(CraftingInventory inv) {
 
 		for (int i = 0; i < list.size(); ++i) {
 			ItemStack item = inv.getStackInSlot(i);
-			if (!item.isEmpty() && ItemSpellDrive.getSpell(item) != null) {
+			if (!item.isEmpty() && ItemSpellDrive.hasSpell(item)) {
 				list.set(i, item.copy());
 				break;
 			}
@@ -31,6 +31,7 @@
 import vazkii.psi.common.Psi;
 import vazkii.psi.common.lib.LibEntityNames;
 import vazkii.psi.common.lib.LibResources;
+import vazkii.psi.common.spell.SpellPhaseBalancer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -51,28 +52,36 @@ public class EntitySpellCircle extends Entity implements ISpellImmune {
 	private static final String TAG_CASTER = "caster";
 	private static final String TAG_TIME_ALIVE = "timeAlive";
 	private static final String TAG_TIMES_CAST = "timesCast";
+	private static final String TAG_CAST_OFFSET = "castOffset";
 
 	private static final String TAG_LOOK_X = "savedLookX";
 	private static final String TAG_LOOK_Y = "savedLookY";
 	private static final String TAG_LOOK_Z = "savedLookZ";
 
 	public static final DataParameter<ItemStack> COLORIZER_DATA = EntityDataManager.createKey(EntitySpellCircle.class, DataSerializers.ITEMSTACK);
-	private static final DataParameter<ItemStack> BULLET_DATA = EntityDataManager.createKey(EntitySpellCircle.class, DataSerializers.ITEMSTACK);
 	private static final DataParameter<Optional<UUID>> CASTER_UUID = EntityDataManager.createKey(EntitySpellCircle.class, DataSerializers.OPTIONAL_UNIQUE_ID);
-	private static final DataParameter<Integer> TIME_ALIVE = EntityDataManager.createKey(EntitySpellCircle.class, DataSerializers.VARINT);
-	private static final DataParameter<Integer> TIMES_CAST = EntityDataManager.createKey(EntitySpellCircle.class, DataSerializers.VARINT);
+	/** Truncated game time the circle was spawned at, set once so the age doesn't need syncing every tick */
+	private static final DataParameter<Integer> SPAWN_TIME = EntityDataManager.createKey(EntitySpellCircle.class, DataSerializers.VARINT);
 
 	private static final DataParameter<Float> LOOK_X = EntityDataManager.createKey(EntitySpellCircle.class, DataSerializers.FLOAT);
 	private static final DataParameter<Float> LOOK_Y = EntityDataManager.createKey(EntitySpellCircle.class, DataSerializers.FLOAT);
 	private static final DataParameter<Float> LOOK_Z = EntityDataManager.createKey(EntitySpellCircle.class, DataSerializers.FLOAT);
 
+	// Only needed on the server, clients just render the colorizer
+	private ItemStack bullet = ItemStack.EMPTY;
+	private int timesCast;
+	/** Extra ticks before each cast, to spread circles placed together over different ticks */
+	private int castOffset;
+
 	public EntitySpellCircle(EntityType<?> type, World worldIn) {
 		super(type, worldIn);
 	}
 
 	public EntitySpellCircle setInfo(PlayerEntity player, ItemStack colorizer, ItemStack bullet) {
 		dataManager.set(COLORIZER_DATA, colorizer);
-		dataManager.set(BULLET_DATA, bullet.copy());
+		this.bullet = bullet.copy();
+		setTimeAlive(0);
+		castOffset = SpellPhaseBalancer.pickDelay(CAST_DELAY * 2);
 		dataManager.set(CASTER_UUID, Optional.of(player.getUniqueID()));
 
 		Vector3d lookVec = player.getLook(1F);
@@ -85,10 +94,8 @@ public EntitySpellCircle setInfo(PlayerEntity player, ItemStack colorizer, ItemS
 	@Override
 	protected void registerData() {
 		dataManager.register(COLORIZER_DATA, ItemStack.EMPTY);
-		dataManager.register(BULLET_DATA, ItemStack.EMPTY);
 		dataManager.register(CASTER_UUID, Optional.empty());
-		dataManager.register(TIME_ALIVE, 0);
-		dataManager.register(TIMES_CAST, 0);
+		dataManager.register(SPAWN_TIME, 0);
 		dataManager.register(LOOK_X, 0F);
 		dataManager.register(LOOK_Y, 0F);
 		dataManager.register(LOOK_Z, 0F);
@@ -104,7 +111,6 @@ public void writeAdditional(@Nonnull CompoundNBT tagCompound) {
 		tagCompound.put(TAG_COLORIZER, colorizerCmp);
 
 		CompoundNBT bulletCmp = new CompoundNBT();
-		ItemStack bullet = dataManager.get(BULLET_DATA);
 		if (!bullet.isEmpty()) {
 			bulletCmp = bullet.write(bulletCmp);
 		}
@@ -112,7 +118,8 @@ public void writeAdditional(@Nonnull CompoundNBT tagCompound) {
 
 		dataManager.get(CASTER_UUID).ifPresent(u -> tagCompound.putString(TAG_CASTER, u.toString()));
 		tagCompound.putInt(TAG_TIME_ALIVE, getTimeAlive());
-		tagCompound.putInt(TAG_TIMES_CAST, dataManager.get(TIMES_CAST));
+		tagCompound.putInt(TAG_TIMES_CAST, timesCast);
+		tagCompound.putInt(TAG_CAST_OFFSET, castOffset);
 
 		tagCompound.putFloat(TAG_LOOK_X, dataManager.get(LOOK_X));
 		tagCompound.putFloat(TAG_LOOK_Y, dataManager.get(LOOK_Y));
@@ -126,14 +133,14 @@ public void readAdditional(@Nonnull CompoundNBT tagCompound) {
 		dataManager.set(COLORIZER_DATA, colorizer);
 
 		CompoundNBT bulletCmp = tagCompound.getCompound(TAG_BULLET);
-		ItemStack bullet = ItemStack.read(bulletCmp);
-		dataManager.set(BULLET_DATA, bullet);
+		bullet = ItemStack.read(bulletCmp);
 
 		if (tagCompound.contains(TAG_CASTER)) {
 			dataManager.set(CASTER_UUID, Optional.of(UUID.fromString(tagCompound.getString(TAG_CASTER))));
 		}
 		setTimeAlive(tagCompound.getInt(TAG_TIME_ALIVE));
-		dataManager.set(TIMES_CAST, tagCompound.getInt(TAG_TIMES_CAST));
+		timesCast = tagCompound.getInt(TAG_TIMES_CAST);
+		castOffset = tagCompound.getInt(TAG_CAST_OFFSET);
 
 		dataManager.set(LOOK_X, tagCompound.getFloat(TAG_LOOK_X));
 		dataManager.set(LOOK_Y, tagCompound.getFloat(TAG_LOOK_Y));
@@ -145,21 +152,20 @@ public void tick() {
 		super.tick();
 
 		int timeAlive = getTimeAlive();
-		if (timeAlive > LIVE_TIME) {
+		if (timeAlive > LIVE_TIME && !world.isRemote) {
 			remove();
 		}
 
-		setTimeAlive(timeAlive + 1);
-		int times = dataManager.get(TIMES_CAST);
+		int times = timesCast;
+		int castTime = timeAlive - castOffset;
 
-		if (timeAlive > CAST_DELAY && timeAlive % CAST_DELAY == 0 && times < 20) {
+		if (!world.isRemote && castTime > CAST_DELAY && castTime % CAST_DELAY == 0 && times < 20) {
 			SpellContext context = null;
 			Entity thrower = getCaster();
 			if (thrower instanceof PlayerEntity) {
-				ItemStack spellContainer = dataManager.get(BULLET_DATA);
-				if (!spellContainer.isEmpty() && ISpellAcceptor.isContainer(spellContainer)) {
-					dataManager.set(TIMES_CAST, times + 1);
-					Spell spell = ISpellAcceptor.acceptor(spellContainer).getSpell();
+				if (!bullet.isEmpty() && ISpellAcceptor.isContainer(bullet)) {
+					timesCast = times + 1;
+					Spell spell = ISpellAcceptor.acceptor(bullet).getSpell();
 					if (spell != null) {
 						context = new SpellContext().setPlayer((PlayerEntity) thrower).setFocalPoint(this)
 								.setSpell(spell).setLoopcastIndex(times);
@@ -199,11 +205,11 @@ public Vector3d getLookVec() {
 	}
 
 	public int getTimeAlive() {
-		return dataManager.get(TIME_ALIVE);
+		return (int) world.getGameTime() - dataManager.get(SPAWN_TIME);
 	}
 
 	public void setTimeAlive(int i) {
-		dataManager.set(TIME_ALIVE, i);
+		dataManager.set(SPAWN_TIME, (int) world.getGameTime() - i);
 	}
 
 	@Nullable
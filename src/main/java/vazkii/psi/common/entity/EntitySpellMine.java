@@ -16,6 +16,7 @@
 import net.minecraft.world.World;
 import net.minecraftforge.registries.ObjectHolder;
 
+import vazkii.psi.common.core.handler.SpellMineHandler;
 import vazkii.psi.common.lib.LibEntityNames;
 import vazkii.psi.common.lib.LibResources;
 
@@ -26,7 +27,11 @@ public class EntitySpellMine extends EntitySpellGrenade {
 	@ObjectHolder(LibResources.PREFIX_MOD + LibEntityNames.SPELL_MINE)
 	public static EntityType<EntitySpellMine> TYPE;
 
+	public static final long NO_SECTION = Long.MIN_VALUE;
+
 	boolean triggered = false;
+	/** The chunk section this mine is registered in with {@link SpellMineHandler} */
+	public long section = NO_SECTION;
 
 	public EntitySpellMine(EntityType<? extends ThrowableEntity> type, World worldIn) {
 		super(type, worldIn);
@@ -40,7 +45,7 @@ public EntitySpellMine(World worldIn, LivingEntity throwerIn) {
 	public void tick() {
 		super.tick();
 
-		List<LivingEntity> entities = getEntityWorld().getEntitiesWithinAABB(LivingEntity.class, getBoundingBox().grow(1, 1, 1));
+		List<LivingEntity> entities = SpellMineHandler.getEntitiesInRange(this);
 		Entity thrower = func_234616_v_();
 		if (thrower != null && ticksExisted < 30) {
 			entities.remove(thrower);
@@ -57,6 +62,12 @@ public void tick() {
 		}
 	}
 
+	@Override
+	public void onRemovedFromWorld() {
+		super.onRemovedFromWorld();
+		SpellMineHandler.removed(this);
+	}
+
 	@Override
 	public int getParticleCount() {
 		return 1;
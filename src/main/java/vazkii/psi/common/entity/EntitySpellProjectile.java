@@ -56,13 +56,15 @@ public class EntitySpellProjectile extends ThrowableEntity {
 	private static final String TAG_LAST_MOTION_Z = "lastMotionZ";
 
 	private static final DataParameter<ItemStack> COLORIZER_DATA = EntityDataManager.createKey(EntitySpellProjectile.class, DataSerializers.ITEMSTACK);
-	private static final DataParameter<ItemStack> BULLET_DATA = EntityDataManager.createKey(EntitySpellProjectile.class, DataSerializers.ITEMSTACK);
 	private static final DataParameter<Optional<UUID>> CASTER_UUID = EntityDataManager.createKey(EntitySpellProjectile.class, DataSerializers.OPTIONAL_UNIQUE_ID);
 	protected static final DataParameter<Optional<UUID>> ATTACKTARGET_UUID = EntityDataManager.createKey(EntitySpellProjectile.class, DataSerializers.OPTIONAL_UNIQUE_ID);
 
 	public SpellContext context;
 	public int timeAlive;
 
+	// Only needed on the server, clients just render the colorizer
+	private ItemStack bullet = ItemStack.EMPTY;
+
 	public EntitySpellProjectile(EntityType<? extends ThrowableEntity> type, World worldIn) {
 		super(type, worldIn);
 	}
@@ -85,7 +87,7 @@ public EntitySpellProjectile(World world, LivingEntity thrower) {
 
 	public EntitySpellProjectile setInfo(PlayerEntity player, ItemStack colorizer, ItemStack bullet) {
 		dataManager.set(COLORIZER_DATA, colorizer);
-		dataManager.set(BULLET_DATA, bullet.copy());
+		this.bullet = bullet.copy();
 		dataManager.set(CASTER_UUID, Optional.of(player.getUniqueID()));
 		dataManager.set(ATTACKTARGET_UUID, Optional.empty());
 		return this;
@@ -94,7 +96,6 @@ public EntitySpellProjectile setInfo(PlayerEntity player, ItemStack colorizer, I
 	@Override
 	protected void registerData() {
 		dataManager.register(COLORIZER_DATA, ItemStack.EMPTY);
-		dataManager.register(BULLET_DATA, ItemStack.EMPTY);
 		dataManager.register(CASTER_UUID, Optional.empty());
 		dataManager.register(ATTACKTARGET_UUID, Optional.empty());
 	}
@@ -111,7 +112,6 @@ public void writeAdditional(CompoundNBT tagCompound) {
 		tagCompound.put(TAG_COLORIZER, colorizerCmp);
 
 		CompoundNBT bulletCmp = new CompoundNBT();
-		ItemStack bullet = dataManager.get(BULLET_DATA);
 		if (!bullet.isEmpty()) {
 			bulletCmp = bullet.write(bulletCmp);
 		}
@@ -133,8 +133,7 @@ public void readAdditional(CompoundNBT tagCompound) {
 		dataManager.set(COLORIZER_DATA, colorizer);
 
 		CompoundNBT bulletCmp = tagCompound.getCompound(TAG_BULLET);
-		ItemStack bullet = ItemStack.read(bulletCmp);
-		dataManager.set(BULLET_DATA, bullet);
+		bullet = ItemStack.read(bulletCmp);
 
 		Entity thrower = func_234616_v_();
 		if (thrower instanceof PlayerEntity) {
@@ -222,9 +221,8 @@ public void cast(Consumer<SpellContext> callback) {
 		boolean canCast = false;
 
 		if (thrower instanceof PlayerEntity) {
-			ItemStack spellContainer = dataManager.get(BULLET_DATA);
-			if (!spellContainer.isEmpty() && ISpellAcceptor.isContainer(spellContainer)) {
-				Spell spell = ISpellAcceptor.acceptor(spellContainer).getSpell();
+			if (!bullet.isEmpty() && ISpellAcceptor.isContainer(bullet)) {
+				Spell spell = ISpellAcceptor.acceptor(bullet).getSpell();
 				if (spell != null) {
 					canCast = true;
 					if (context == null) {
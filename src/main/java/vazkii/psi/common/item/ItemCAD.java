@@ -71,7 +71,6 @@
 import vazkii.psi.common.item.base.ModItems;
 import vazkii.psi.common.lib.LibPieceGroups;
 import vazkii.psi.common.network.MessageRegister;
-import vazkii.psi.common.network.message.MessageCADDataSync;
 import vazkii.psi.common.network.message.MessageVisualEffect;
 import vazkii.psi.common.spell.trick.block.PieceTrickBreakBlock;
 
@@ -164,8 +163,12 @@ public void inventoryTick(ItemStack stack, World world, Entity entityIn, int ite
 
 			if (entityIn instanceof ServerPlayerEntity && data.isDirty()) {
 				ServerPlayerEntity player = (ServerPlayerEntity) entityIn;
-				MessageRegister.sendToPlayer(new MessageCADDataSync(data), player);
-				data.markDirty(false);
+				if (stack == PsiAPI.getPlayerCAD(player)) {
+					PlayerDataHandler.requestSync(player);
+				} else {
+					// Only the CAD in use is synced, see PlayerData#flushSync
+					data.markDirty(false);
+				}
 			}
 		});
 	}
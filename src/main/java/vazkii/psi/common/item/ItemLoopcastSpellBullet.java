@@ -15,6 +15,7 @@
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.common.core.handler.LoopcastTrackingHandler;
 import vazkii.psi.common.core.handler.PlayerDataHandler;
+import vazkii.psi.common.spell.SpellPhaseBalancer;
 
 import java.util.ArrayList;
 
@@ -31,8 +32,11 @@ public ArrayList<Entity> castSpell(ItemStack stack, SpellContext context) {
 			context.cspell.safeExecute(context);
 			data.loopcasting = true;
 			data.loopcastHand = context.castFrom;
-			data.lastTickLoopcastStack = null;
+			data.clearLastTickLoopcast();
 			if (context.caster instanceof ServerPlayerEntity) {
+				// Loopcasts fire when loopcastTime reaches a positive multiple of 5, so starting lower only shifts the phase.
+				// The client gets the phase with the sync below.
+				data.loopcastTime = 1 - SpellPhaseBalancer.pickDelay(4);
 				LoopcastTrackingHandler.syncForTrackersAndSelf((ServerPlayerEntity) context.caster);
 			}
 		}
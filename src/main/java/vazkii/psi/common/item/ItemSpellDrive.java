@@ -31,6 +31,7 @@
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.common.block.tile.TileProgrammer;
 import vazkii.psi.common.core.handler.PsiSoundHandler;
+import vazkii.psi.common.spell.SpellPayloads;
 
 import javax.annotation.Nonnull;
 
@@ -87,7 +88,7 @@ public ActionResultType onItemUse(ItemUseContext ctx) {
 					programmer.playerLock = playerIn.getName().getString();
 				}
 
-				programmer.spell = spell;
+				programmer.spell = spell.copy();
 				programmer.onSpellChanged();
 				if (!worldIn.isRemote) {
 					worldIn.playSound(null, pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, PsiSoundHandler.bulletCreate, SoundCategory.PLAYERS, 0.5F, 1F);
@@ -131,9 +132,29 @@ public static void setSpell(ItemStack stack, Spell spell) {
 
 	}
 
+	/**
+	 * Gets the spell on the stack. The spell is shared with every other stack holding the same one,
+	 * see {@link SpellPayloads}, so copy it before making changes.
+	 */
 	public static Spell getSpell(ItemStack stack) {
 		CompoundNBT cmp = stack.getOrCreateTag().getCompound(TAG_SPELL);
-		return Spell.createFromNBT(cmp);
+		return SpellPayloads.get(cmp);
+	}
+
+	public static boolean hasSpell(ItemStack stack) {
+		return stack.hasTag() && stack.getTag().getBoolean(HAS_SPELL);
+	}
+
+	/**
+	 * Puts the spell on one stack onto another, without reading it.
+	 */
+	public static void copySpell(ItemStack from, ItemStack to) {
+		if (hasSpell(from)) {
+			to.getOrCreateTag().put(TAG_SPELL, from.getTag().getCompound(TAG_SPELL).copy());
+			to.getOrCreateTag().putBoolean(HAS_SPELL, true);
+		} else {
+			setSpell(to, null);
+		}
 	}
 
 }
@@ -20,21 +20,22 @@
 import vazkii.psi.common.lib.LibMisc;
 import vazkii.psi.common.network.message.MessageAdditiveMotion;
 import vazkii.psi.common.network.message.MessageBlink;
-import vazkii.psi.common.network.message.MessageCADDataSync;
+import vazkii.psi.common.network.message.MessageBlockBreakEffects;
 import vazkii.psi.common.network.message.MessageChangeControllerSlot;
 import vazkii.psi.common.network.message.MessageChangeSocketableSlot;
+import vazkii.psi.common.network.message.MessageConjuredSync;
 import vazkii.psi.common.network.message.MessageDataSync;
-import vazkii.psi.common.network.message.MessageDeductPsi;
 import vazkii.psi.common.network.message.MessageEidosSync;
 import vazkii.psi.common.network.message.MessageLoopcastSync;
 import vazkii.psi.common.network.message.MessageParticleTrail;
+import vazkii.psi.common.network.message.MessagePsiSync;
 import vazkii.psi.common.network.message.MessageSpamlessChat;
 import vazkii.psi.common.network.message.MessageSpellModified;
 import vazkii.psi.common.network.message.MessageTriggerJumpSpell;
 import vazkii.psi.common.network.message.MessageVisualEffect;
 
 public class MessageRegister {
-	private static final String VERSION = "3";
+	private static final String VERSION = "9";
 	public static final SimpleChannel HANDLER = NetworkRegistry.newSimpleChannel(new ResourceLocation(LibMisc.MOD_ID, "main"),
 			() -> VERSION,
 			VERSION::equals,
@@ -54,14 +55,6 @@ public static void init() {
 				.encoder(MessageEidosSync::encode)
 				.decoder(MessageEidosSync::new)
 				.consumer(MessageEidosSync::receive).add();
-		HANDLER.messageBuilder(MessageCADDataSync.class, id++)
-				.encoder(MessageCADDataSync::encode)
-				.decoder(MessageCADDataSync::new)
-				.consumer(MessageCADDataSync::receive).add();
-		HANDLER.messageBuilder(MessageDeductPsi.class, id++)
-				.encoder(MessageDeductPsi::encode)
-				.decoder(MessageDeductPsi::new)
-				.consumer(MessageDeductPsi::receive).add();
 		HANDLER.messageBuilder(MessageChangeSocketableSlot.class, id++)
 				.encoder(MessageChangeSocketableSlot::encode)
 				.decoder(MessageChangeSocketableSlot::new)
@@ -98,6 +91,18 @@ public static void init() {
 				.encoder(MessageParticleTrail::encode)
 				.decoder(MessageParticleTrail::new)
 				.consumer(MessageParticleTrail::receive).add();
+		HANDLER.messageBuilder(MessageBlockBreakEffects.class, id++)
+				.encoder(MessageBlockBreakEffects::encode)
+				.decoder(MessageBlockBreakEffects::new)
+				.consumer(MessageBlockBreakEffects::receive).add();
+		HANDLER.messageBuilder(MessageConjuredSync.class, id++)
+				.encoder(MessageConjuredSync::encode)
+				.decoder(MessageConjuredSync::new)
+				.consumer(MessageConjuredSync::receive).add();
+		HANDLER.messageBuilder(MessagePsiSync.class, id++)
+				.encoder(MessagePsiSync::encode)
+				.decoder(MessagePsiSync::new)
+				.consumer(MessagePsiSync::receive).add();
 	}
 
 	public static void writeVec3d(PacketBuffer buf, Vector3d vec3d) {
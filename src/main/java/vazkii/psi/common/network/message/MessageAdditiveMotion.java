@@ -17,42 +17,48 @@
 
 import java.util.function.Supplier;
 
+/**
+ * Additive motion for any number of entities, so everything queued in a tick reaches each client in one packet.
+ */
 public class MessageAdditiveMotion {
 
-	private final int entityID;
-	private final double motionX;
-	private final double motionY;
-	private final double motionZ;
+	private final int[] entityIDs;
+	/** x, y and z of the motion of each entity, one after another */
+	private final double[] motions;
 
 	public MessageAdditiveMotion(int entityID, double motionX, double motionY, double motionZ) {
-		this.entityID = entityID;
+		this(new int[] { entityID }, new double[] { motionX, motionY, motionZ });
+	}
 
-		this.motionX = motionX;
-		this.motionY = motionY;
-		this.motionZ = motionZ;
+	public MessageAdditiveMotion(int[] entityIDs, double[] motions) {
+		this.entityIDs = entityIDs;
+		this.motions = motions;
 	}
 
 	public MessageAdditiveMotion(PacketBuffer buf) {
-		entityID = buf.readVarInt();
-		motionX = buf.readDouble();
-		motionY = buf.readDouble();
-		motionZ = buf.readDouble();
+		entityIDs = buf.readVarIntArray();
+		motions = new double[entityIDs.length * 3];
+		for (int i = 0; i < motions.length; i++) {
+			motions[i] = buf.readDouble();
+		}
 	}
 
 	public void encode(PacketBuffer buf) {
-		buf.writeVarInt(entityID);
-		buf.writeDouble(motionX);
-		buf.writeDouble(motionY);
-		buf.writeDouble(motionZ);
+		buf.writeVarIntArray(entityIDs);
+		for (double motion : motions) {
+			buf.writeDouble(motion);
+		}
 	}
 
 	public boolean receive(Supplier<NetworkEvent.Context> context) {
 		context.get().enqueueWork(() -> {
 			World world = Psi.proxy.getClientWorld();
 			if (world != null) {
-				Entity entity = world.getEntityByID(entityID);
-				if (entity != null) {
-					entity.setMotion(entity.getMotion().add(motionX, motionY, motionZ));
+				for (int i = 0; i < entityIDs.length; i++) {
+					Entity entity = world.getEntityByID(entityIDs[i]);
+					if (entity != null) {
+						entity.setMotion(entity.getMotion().add(motions[i * 3], motions[i * 3 + 1], motions[i * 3 + 2]));
+					}
 				}
 			}
 		});
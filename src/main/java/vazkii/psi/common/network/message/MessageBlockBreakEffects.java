@@ -0,0 +1,65 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.network.message;
+
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import vazkii.psi.common.Psi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Block break effects for a whole sequence trick, sent as one packet instead of one event per block.
+ */
+public class MessageBlockBreakEffects {
+
+	private final List<BlockPos> positions;
+	private final int[] states;
+
+	public MessageBlockBreakEffects(List<BlockPos> positions, int[] states) {
+		this.positions = positions;
+		this.states = states;
+	}
+
+	public MessageBlockBreakEffects(PacketBuffer buf) {
+		int size = buf.readVarInt();
+		this.positions = new ArrayList<>(size);
+		this.states = new int[size];
+		for (int i = 0; i < size; i++) {
+			positions.add(buf.readBlockPos());
+			states[i] = buf.readVarInt();
+		}
+	}
+
+	public void encode(PacketBuffer buf) {
+		buf.writeVarInt(positions.size());
+		for (int i = 0; i < positions.size(); i++) {
+			buf.writeBlockPos(positions.get(i));
+			buf.writeVarInt(states[i]);
+		}
+	}
+
+	public boolean receive(Supplier<NetworkEvent.Context> context) {
+		context.get().enqueueWork(() -> {
+			World world = Psi.proxy.getClientWorld();
+			if (world != null) {
+				for (int i = 0; i < positions.size(); i++) {
+					world.playEvent(2001, positions.get(i), states[i]);
+				}
+			}
+		});
+		return true;
+	}
+
+}
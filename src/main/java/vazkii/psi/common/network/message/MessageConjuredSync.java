@@ -0,0 +1,83 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.network.message;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import vazkii.psi.common.Psi;
+import vazkii.psi.common.core.handler.capability.ConjuredChunkData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Syncs the conjured block colorizers of a chunk.
+ */
+public class MessageConjuredSync {
+
+	private final ConjuredChunkData data;
+
+	private final int chunkX;
+	private final int chunkZ;
+	private final List<ItemStack> palette;
+	private final int[] positions;
+	private final int[] indices;
+
+	public MessageConjuredSync(ConjuredChunkData data) {
+		this.data = data;
+		this.chunkX = data.getChunk().getPos().x;
+		this.chunkZ = data.getChunk().getPos().z;
+		this.palette = null;
+		this.positions = null;
+		this.indices = null;
+	}
+
+	public MessageConjuredSync(PacketBuffer buf) {
+		this.data = null;
+		this.chunkX = buf.readInt();
+		this.chunkZ = buf.readInt();
+
+		int paletteSize = buf.readVarInt();
+		this.palette = new ArrayList<>(paletteSize);
+		for (int i = 0; i < paletteSize; i++) {
+			palette.add(buf.readItemStack());
+		}
+
+		int blockCount = buf.readVarInt();
+		this.positions = new int[blockCount];
+		this.indices = new int[blockCount];
+		for (int i = 0; i < blockCount; i++) {
+			positions[i] = buf.readVarInt();
+			indices[i] = buf.readVarInt();
+		}
+	}
+
+	public void encode(PacketBuffer buf) {
+		buf.writeInt(chunkX);
+		buf.writeInt(chunkZ);
+		data.writeSync(buf);
+	}
+
+	public boolean receive(Supplier<NetworkEvent.Context> context) {
+		context.get().enqueueWork(() -> {
+			World world = Psi.proxy.getClientWorld();
+			if (world != null) {
+				Chunk chunk = world.getChunk(chunkX, chunkZ);
+				chunk.getCapability(ConjuredChunkData.CAPABILITY).ifPresent(data -> data.applySync(palette, positions, indices));
+			}
+		});
+		return true;
+	}
+
+}
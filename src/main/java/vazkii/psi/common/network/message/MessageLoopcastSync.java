@@ -24,20 +24,25 @@ public class MessageLoopcastSync {
 
 	private final int entityId;
 	private final byte loopcastState;
+	/** The server's loopcast tick counter, so the client casts and renders in the same phase */
+	private final int loopcastTime;
 
-	public MessageLoopcastSync(int entityId, boolean isLoopcasting, Hand hand) {
+	public MessageLoopcastSync(int entityId, boolean isLoopcasting, Hand hand, int loopcastTime) {
 		this.entityId = entityId;
 		loopcastState = (byte) ((isLoopcasting ? 1 : 0) | (hand == null ? 0 : hand.ordinal() << 1));
+		this.loopcastTime = loopcastTime;
 	}
 
 	public MessageLoopcastSync(PacketBuffer buf) {
 		entityId = buf.readVarInt();
 		loopcastState = buf.readByte();
+		loopcastTime = buf.readVarInt();
 	}
 
 	public void encode(PacketBuffer buf) {
 		buf.writeVarInt(entityId);
 		buf.writeByte(loopcastState);
+		buf.writeVarInt(loopcastTime);
 	}
 
 	public boolean receive(Supplier<NetworkEvent.Context> context) {
@@ -63,6 +68,7 @@ public boolean receive(Supplier<NetworkEvent.Context> context) {
 				PlayerDataHandler.PlayerData data = PlayerDataHandler.get((PlayerEntity) player);
 				data.loopcasting = isLoopcasting;
 				data.loopcastHand = loopcastHand;
+				data.loopcastTime = loopcastTime;
 			}
 		});
 
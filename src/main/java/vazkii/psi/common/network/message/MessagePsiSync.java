@@ -0,0 +1,174 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.network.message;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import vazkii.psi.api.PsiAPI;
+import vazkii.psi.api.cad.ICADData;
+import vazkii.psi.api.internal.Vector3;
+import vazkii.psi.common.Psi;
+import vazkii.psi.common.core.handler.PlayerDataHandler;
+import vazkii.psi.common.core.handler.PlayerDataHandler.PlayerData;
+
+import javax.annotation.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * Everything about a player's Psi and CAD that changed during a tick, sent once at the end of it.
+ * Only the fields flagged in the mask are written.
+ */
+public class MessagePsiSync {
+
+	public static final int PSI = 1;
+	public static final int REGEN_COOLDOWN = 1 << 1;
+	public static final int OVERFLOWED = 1 << 2;
+	public static final int CAD_TIME = 1 << 3;
+	public static final int CAD_BATTERY = 1 << 4;
+	public static final int CAD_VECTORS = 1 << 5;
+
+	private final int mask;
+
+	private int psi;
+	private int deductedFrom;
+	private boolean shatter;
+	private int regenCooldown;
+	private boolean overflowed;
+	private int cadTime;
+	private int cadBattery;
+	private int[] vectorSlots = new int[0];
+	private Vector3[] vectors = new Vector3[0];
+
+	public MessagePsiSync(int mask, PlayerData data, int deductedFrom, boolean shatter, @Nullable ICADData cadData, int[] vectorSlots) {
+		this.mask = mask;
+		this.psi = data.availablePsi;
+		this.deductedFrom = deductedFrom;
+		this.shatter = shatter;
+		this.regenCooldown = data.regenCooldown;
+		this.overflowed = data.overflowed;
+		if (cadData != null) {
+			this.cadTime = cadData.getTime();
+			this.cadBattery = cadData.getBattery();
+			this.vectorSlots = vectorSlots;
+			this.vectors = new Vector3[vectorSlots.length];
+			for (int i = 0; i < vectorSlots.length; i++) {
+				vectors[i] = cadData.getSavedVector(vectorSlots[i]);
+			}
+		}
+	}
+
+	public MessagePsiSync(PacketBuffer buf) {
+		this.mask = buf.readByte();
+		if ((mask & PSI) != 0) {
+			this.psi = buf.readVarInt();
+			this.deductedFrom = buf.readVarInt();
+			this.shatter = buf.readBoolean();
+		}
+		if ((mask & REGEN_COOLDOWN) != 0) {
+			this.regenCooldown = buf.readVarInt();
+		}
+		if ((mask & OVERFLOWED) != 0) {
+			this.overflowed = buf.readBoolean();
+		}
+		if ((mask & CAD_TIME) != 0) {
+			this.cadTime = buf.readVarInt();
+		}
+		if ((mask & CAD_BATTERY) != 0) {
+			this.cadBattery = buf.readVarInt();
+		}
+		if ((mask & CAD_VECTORS) != 0) {
+			int count = buf.readVarInt();
+			this.vectorSlots = new int[count];
+			this.vectors = new Vector3[count];
+			for (int i = 0; i < count; i++) {
+				vectorSlots[i] = buf.readVarInt();
+				vectors[i] = new Vector3(buf.readDouble(), buf.readDouble(), buf.readDouble());
+			}
+		}
+	}
+
+	public void encode(PacketBuffer buf) {
+		buf.writeByte(mask);
+		if ((mask & PSI) != 0) {
+			buf.writeVarInt(psi);
+			buf.writeVarInt(deductedFrom);
+			buf.writeBoolean(shatter);
+		}
+		if ((mask & REGEN_COOLDOWN) != 0) {
+			buf.writeVarInt(regenCooldown);
+		}
+		if ((mask & OVERFLOWED) != 0) {
+			buf.writeBoolean(overflowed);
+		}
+		if ((mask & CAD_TIME) != 0) {
+			buf.writeVarInt(cadTime);
+		}
+		if ((mask & CAD_BATTERY) != 0) {
+			buf.writeVarInt(cadBattery);
+		}
+		if ((mask & CAD_VECTORS) != 0) {
+			buf.writeVarInt(vectorSlots.length);
+			for (int i = 0; i < vectorSlots.length; i++) {
+				buf.writeVarInt(vectorSlots[i]);
+				buf.writeDouble(vectors[i].x);
+				buf.writeDouble(vectors[i].y);
+				buf.writeDouble(vectors[i].z);
+			}
+		}
+	}
+
+	public boolean receive(Supplier<NetworkEvent.Context> context) {
+		context.get().enqueueWork(() -> {
+			PlayerEntity player = Psi.proxy.getClientPlayer();
+			if (player == null) {
+				return;
+			}
+
+			PlayerData data = PlayerDataHandler.get(player);
+			if ((mask & PSI) != 0) {
+				data.lastAvailablePsi = data.availablePsi;
+				data.availablePsi = psi;
+				data.deductTick = true;
+				data.addDeduction(deductedFrom, deductedFrom - psi, shatter);
+			}
+			if ((mask & REGEN_COOLDOWN) != 0) {
+				data.regenCooldown = regenCooldown;
+			}
+			if ((mask & OVERFLOWED) != 0) {
+				data.overflowed = overflowed;
+			}
+
+			if ((mask & (CAD_TIME | CAD_BATTERY | CAD_VECTORS)) != 0) {
+				ItemStack cad = PsiAPI.getPlayerCAD(player);
+				if (!cad.isEmpty()) {
+					cad.getCapability(PsiAPI.CAD_DATA_CAPABILITY).ifPresent(d -> {
+						if ((mask & CAD_TIME) != 0) {
+							d.setTime(cadTime);
+						}
+						if ((mask & CAD_BATTERY) != 0) {
+							d.setBattery(cadBattery);
+						}
+						for (int i = 0; i < vectorSlots.length; i++) {
+							d.setSavedVector(vectorSlots[i], vectors[i]);
+						}
+						d.pollDirtyVectorSlots();
+						d.markDirty(false);
+					});
+				}
+			}
+		});
+
+		return true;
+	}
+
+}
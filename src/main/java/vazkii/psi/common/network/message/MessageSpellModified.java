@@ -17,6 +17,7 @@
 import vazkii.psi.api.internal.VanillaPacketDispatcher;
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.common.block.tile.TileProgrammer;
+import vazkii.psi.common.spell.SpellCodec;
 
 import java.util.function.Supplier;
 
@@ -36,7 +37,7 @@ public MessageSpellModified(PacketBuffer buf) {
 	}
 
 	private static Spell readSpell(PacketBuffer buf) {
-		CompoundNBT cmp = buf.readCompoundTag();
+		CompoundNBT cmp = SpellCodec.read(buf);
 		return Spell.createFromNBT(cmp);
 	}
 
@@ -46,7 +47,7 @@ private static void writeSpell(PacketBuffer buf, Spell spell) {
 			spell.writeToNBT(cmp);
 		}
 
-		buf.writeCompoundTag(cmp);
+		SpellCodec.write(buf, cmp);
 	}
 
 	public void encode(PacketBuffer buf) {
@@ -0,0 +1,165 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectSortedMap;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.SectionPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.network.PacketDistributor;
+
+import vazkii.psi.api.spell.IBlockMutationBatch;
+import vazkii.psi.api.spell.IWorldReadCache;
+import vazkii.psi.common.core.handler.ConfigHandler;
+import vazkii.psi.common.network.MessageRegister;
+import vazkii.psi.common.network.message.MessageBlockBreakEffects;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BlockMutationBatch implements IBlockMutationBatch {
+
+	/** Same range as the vanilla block break event. */
+	private static final double EFFECT_RANGE = 64;
+
+	private final World world;
+	private final boolean batched;
+	/** The read cache of the context this batch belongs to, kept in sync with the changes made through it */
+	@Nullable
+	private final IWorldReadCache readCache;
+
+	/**
+	 * Pending neighbor notifications, grouped by the chunk section they happen in. Sorted by section key,
+	 * so the sections of a chunk are applied one after another.
+	 */
+	private final Long2ObjectSortedMap<List<Change>> changes = new Long2ObjectRBTreeMap<>();
+
+	private final List<BlockPos> effectPositions = new ArrayList<>();
+	private final IntList effectStates = new IntArrayList();
+
+	public BlockMutationBatch(World world) {
+		this(world, null);
+	}
+
+	public BlockMutationBatch(World world, @Nullable IWorldReadCache readCache) {
+		this.world = world;
+		this.batched = !world.isRemote && ConfigHandler.COMMON.batchBlockMutations.get();
+		this.readCache = readCache;
+	}
+
+	@Override
+	public World getWorld() {
+		return world;
+	}
+
+	@Override
+	public boolean setBlockState(BlockPos pos, BlockState state, int flags) {
+		if (readCache != null) {
+			readCache.invalidate(pos);
+		}
+
+		if (!batched || (flags & 1) == 0) {
+			return world.setBlockState(pos, state, flags);
+		}
+
+		BlockState oldState = world.getBlockState(pos);
+		if (!world.setBlockState(pos, state, flags & ~1)) {
+			return false;
+		}
+
+		long section = SectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+		changes.computeIfAbsent(section, s -> new ArrayList<>()).add(new Change(pos.toImmutable(), oldState.getBlock()));
+		return true;
+	}
+
+	@Override
+	public boolean removeBlock(BlockPos pos, boolean isMoving) {
+		FluidState fluid = world.getFluidState(pos);
+		return setBlockState(pos, fluid.getBlockState(), 3 | (isMoving ? 64 : 0));
+	}
+
+	@Override
+	public void playBreakEffect(BlockPos pos, BlockState state) {
+		if (!batched) {
+			world.playEvent(2001, pos, Block.getStateId(state));
+			return;
+		}
+
+		effectPositions.add(pos.toImmutable());
+		effectStates.add(Block.getStateId(state));
+	}
+
+	@Override
+	public void flush() {
+		for (List<Change> sectionChanges : changes.values()) {
+			for (Change change : sectionChanges) {
+				world.notifyNeighborsOfStateChange(change.pos, change.oldBlock);
+				BlockState state = world.getBlockState(change.pos);
+				if (state.hasComparatorInputOverride()) {
+					world.updateComparatorOutputLevel(change.pos, state.getBlock());
+				}
+			}
+		}
+		if (!changes.isEmpty() && readCache != null) {
+			// Neighbor updates can change blocks anywhere around
+			readCache.invalidateAll();
+		}
+		changes.clear();
+
+		if (!effectPositions.isEmpty()) {
+			sendBreakEffects();
+			effectPositions.clear();
+			effectStates.clear();
+		}
+	}
+
+	private void sendBreakEffects() {
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+		for (BlockPos pos : effectPositions) {
+			minX = Math.min(minX, pos.getX());
+			minY = Math.min(minY, pos.getY());
+			minZ = Math.min(minZ, pos.getZ());
+			maxX = Math.max(maxX, pos.getX());
+			maxY = Math.max(maxY, pos.getY());
+			maxZ = Math.max(maxZ, pos.getZ());
+		}
+
+		double x = (minX + maxX) / 2.0 + 0.5;
+		double y = (minY + maxY) / 2.0 + 0.5;
+		double z = (minZ + maxZ) / 2.0 + 0.5;
+		// Reach every player that would have received the effect for at least one of the positions
+		double halfDiagonal = Math.sqrt((maxX - minX) * (maxX - minX) + (maxY - minY) * (maxY - minY) + (maxZ - minZ) * (maxZ - minZ)) / 2.0;
+		PacketDistributor.TargetPoint target = new PacketDistributor.TargetPoint(x, y, z, EFFECT_RANGE + halfDiagonal, world.getDimensionKey());
+
+		MessageRegister.HANDLER.send(PacketDistributor.NEAR.with(() -> target), new MessageBlockBreakEffects(new ArrayList<>(effectPositions), effectStates.toIntArray()));
+	}
+
+	private static class Change {
+
+		private final BlockPos pos;
+		private final Block oldBlock;
+
+		private Change(BlockPos pos, Block oldBlock) {
+			this.pos = pos;
+			this.oldBlock = oldBlock;
+		}
+
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.ArmorStandEntity;
+import net.minecraft.world.World;
+
+import vazkii.psi.api.spell.wrapper.EntityListWrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares the list operations of {@link EntityListWrapper} with the way they used to be done, on sorted
+ * lists of entities compared by UUID. Run with /psi bench lists in a dev environment.
+ */
+public final class EntityListBenchmark {
+
+	private EntityListBenchmark() {}
+
+	/**
+	 * Runs union, intersection and exclusion on two lists of the given size that share half their entities.
+	 * The entities are created in the world but never added to it.
+	 *
+	 * @return the nanoseconds per union, intersection and exclusion, each first on entity lists and then packed
+	 */
+	public static long[] run(World world, int size, int rounds) {
+		List<Entity> entities = new ArrayList<>();
+		for (int i = 0; i < size + size / 2; i++) {
+			entities.add(new ArmorStandEntity(world, i, 0, 0));
+		}
+
+		List<Entity> left = sorted(entities.subList(0, size));
+		List<Entity> right = sorted(entities.subList(size / 2, size + size / 2));
+		EntityListWrapper packedLeft = EntityListWrapper.make(left);
+		EntityListWrapper packedRight = EntityListWrapper.make(right);
+
+		long[] result = new long[6];
+		// Sizes are summed so the work can't be optimized away
+		long sink = 0;
+
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			sink += union(left, right).size();
+		}
+		result[0] = (System.nanoTime() - start) / rounds;
+
+		start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			sink += EntityListWrapper.union(packedLeft, packedRight).size();
+		}
+		result[1] = (System.nanoTime() - start) / rounds;
+
+		start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			sink += intersection(left, right).size();
+		}
+		result[2] = (System.nanoTime() - start) / rounds;
+
+		start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			sink += EntityListWrapper.intersection(packedLeft, packedRight).size();
+		}
+		result[3] = (System.nanoTime() - start) / rounds;
+
+		start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			sink += exclusion(left, right).size();
+		}
+		result[4] = (System.nanoTime() - start) / rounds;
+
+		start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			sink += EntityListWrapper.exclusion(packedLeft, packedRight).size();
+		}
+		result[5] = (System.nanoTime() - start) / rounds;
+
+		if (sink == Long.MIN_VALUE) {
+			throw new IllegalStateException();
+		}
+		return result;
+	}
+
+	private static List<Entity> sorted(List<Entity> entities) {
+		List<Entity> copy = new ArrayList<>(entities);
+		copy.sort(EntityListWrapper::compareEntities);
+		return copy;
+	}
+
+	// The old implementations, for comparison
+
+	private static List<Entity> union(List<Entity> l1, List<Entity> l2) {
+		List<Entity> entities = new ArrayList<>(l1.size() + l2.size());
+		int i = 0, j = 0;
+		while (i < l1.size() && j < l2.size()) {
+			int cmp = EntityListWrapper.compareEntities(l1.get(i), l2.get(j));
+			if (cmp == 0) {
+				i++;
+				continue;
+			}
+			entities.add(cmp < 0 ? l1.get(i++) : l2.get(j++));
+		}
+		entities.addAll(l1.subList(i, l1.size()));
+		entities.addAll(l2.subList(j, l2.size()));
+		return entities;
+	}
+
+	private static List<Entity> intersection(List<Entity> left, List<Entity> right) {
+		List<Entity> result = new ArrayList<>();
+		for (Entity e : left) {
+			if (Collections.binarySearch(right, e, EntityListWrapper::compareEntities) >= 0) {
+				result.add(e);
+			}
+		}
+		return result;
+	}
+
+	private static List<Entity> exclusion(List<Entity> list, List<Entity> remove) {
+		List<Entity> result = new ArrayList<>();
+		for (Entity e : list) {
+			if (Collections.binarySearch(remove, e, EntityListWrapper::compareEntities) < 0) {
+				result.add(e);
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell;
+
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.network.PacketBuffer;
+
+import vazkii.psi.common.network.message.MessageAdditiveMotion;
+
+/**
+ * Compares sending the motion of a mass trick as one packet per entity with sending it as a single packet,
+ * for one tracking client. Run with /psi bench motion in a dev environment.
+ */
+public final class MassMotionBenchmark {
+
+	private MassMotionBenchmark() {}
+
+	/**
+	 * @return the nanoseconds and bytes it takes to encode the motion of the given number of entities, first as
+	 *         separate packets and then as one
+	 */
+	public static long[] run(int size, int rounds) {
+		int[] ids = new int[size];
+		double[] motions = new double[size * 3];
+		for (int i = 0; i < size; i++) {
+			ids[i] = i * 7 + 1000;
+			motions[i * 3] = i * 0.01;
+			motions[i * 3 + 1] = 0.3;
+			motions[i * 3 + 2] = -i * 0.01;
+		}
+
+		long[] result = new long[4];
+
+		long start = System.nanoTime();
+		for (int round = 0; round < rounds; round++) {
+			long bytes = 0;
+			for (int i = 0; i < size; i++) {
+				PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+				new MessageAdditiveMotion(ids[i], motions[i * 3], motions[i * 3 + 1], motions[i * 3 + 2]).encode(buf);
+				bytes += buf.readableBytes();
+				buf.release();
+			}
+			result[1] = bytes;
+		}
+		result[0] = (System.nanoTime() - start) / rounds;
+
+		start = System.nanoTime();
+		for (int round = 0; round < rounds; round++) {
+			PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+			new MessageAdditiveMotion(ids, motions).encode(buf);
+			result[3] = buf.readableBytes();
+			buf.release();
+		}
+		result[2] = (System.nanoTime() - start) / rounds;
+
+		return result;
+	}
+
+}
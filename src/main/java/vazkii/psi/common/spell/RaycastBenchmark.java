@@ -0,0 +1,124 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.ArmorStandEntity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.vector.Vector3d;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+
+import vazkii.psi.api.spell.ISpellImmune;
+import vazkii.psi.common.spell.operator.entity.PieceOperatorEntityRaycast;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Compares {@link PieceOperatorEntityRaycast#rayTraceEntities} with the single box query it used to do, on a ray
+ * that passes by a mob farm. Run with /psi bench raycast in a dev environment.
+ */
+public final class RaycastBenchmark {
+
+	private static final double RAY_LENGTH = 64;
+
+	private static final Predicate<Entity> PREDICATE = pred -> !pred.isSpectator() && pred.isAlive() && pred.canBeCollidedWith() && !(pred instanceof ISpellImmune);
+
+	private RaycastBenchmark() {}
+
+	/**
+	 * Casts a diagonal ray from the corner of the chunk at the given position, with a crowd of the given size
+	 * packed into a patch two chunks along and off to the side. The crowd is inside the box spanning the ray
+	 * but not in any section the ray passes near, and a single entity sits at the end of the ray to be hit.
+	 * The entities are added to the world and removed again afterwards.
+	 *
+	 * @return the nanoseconds per ray with one box and with section marching, and the number of rays whose hit differed
+	 */
+	public static long[] run(ServerWorld world, @Nullable Entity caster, Vector3d position, int size, int rounds) {
+		double x = Math.floor(position.x / 16) * 16;
+		double z = Math.floor(position.z / 16) * 16;
+		Vector3d origin = new Vector3d(x, position.y + 1, z);
+		Vector3d look = new Vector3d(1, 0, 1).normalize();
+
+		List<Entity> spawned = new ArrayList<>();
+		try {
+			for (int i = 0; i < size; i++) {
+				spawn(world, spawned, x + 34 + i % 10, position.y, z + 2 + i / 10 % 10);
+			}
+			Vector3d end = origin.add(look.scale(RAY_LENGTH - 4));
+			Entity target = spawn(world, spawned, end.x, position.y, end.z);
+
+			long[] result = new long[3];
+
+			long start = System.nanoTime();
+			for (int i = 0; i < rounds; i++) {
+				if (rayTraceEntities(world, caster, origin, look, PREDICATE, RAY_LENGTH) != target) {
+					result[2]++;
+				}
+			}
+			result[0] = (System.nanoTime() - start) / rounds;
+
+			start = System.nanoTime();
+			for (int i = 0; i < rounds; i++) {
+				if (PieceOperatorEntityRaycast.rayTraceEntities(world, caster, origin, look, PREDICATE, RAY_LENGTH) != target) {
+					result[2]++;
+				}
+			}
+			result[1] = (System.nanoTime() - start) / rounds;
+
+			return result;
+		} finally {
+			for (Entity entity : spawned) {
+				entity.remove();
+			}
+		}
+	}
+
+	private static Entity spawn(ServerWorld world, List<Entity> spawned, double x, double y, double z) {
+		ArmorStandEntity entity = new ArmorStandEntity(world, x + 0.5, y, z + 0.5);
+		entity.setNoGravity(true);
+		world.addEntity(entity);
+		spawned.add(entity);
+		return entity;
+	}
+
+	// The old implementation, for comparison
+
+	private static Entity rayTraceEntities(World world, Entity caster, Vector3d positionVector, Vector3d lookVector, Predicate<Entity> predicate, double maxDistance) {
+		double distance = maxDistance;
+		Entity entity = null;
+
+		Vector3d reachVector = positionVector.add(lookVector.scale(maxDistance));
+		AxisAlignedBB aabb = new AxisAlignedBB(positionVector.x, positionVector.y, positionVector.z, reachVector.x, reachVector.y, reachVector.z).grow(1f, 1f, 1f);
+		for (Entity entity1 : world.getEntitiesInAABBexcluding(caster, aabb, predicate)) {
+			float collisionBorderSize = entity1.getCollisionBorderSize();
+			AxisAlignedBB axisalignedbb = entity1.getBoundingBox().grow(collisionBorderSize);
+			Optional<Vector3d> optional = axisalignedbb.rayTrace(positionVector, reachVector);
+			if (axisalignedbb.contains(positionVector)) {
+				if (0.0D < distance || distance == 0.0D) {
+					entity = entity1;
+					distance = 0.0D;
+				}
+			} else if (optional.isPresent()) {
+				double distanceTo = positionVector.distanceTo(optional.get());
+				if (distanceTo < distance) {
+					entity = entity1;
+					distance = distanceTo;
+				}
+			}
+		}
+		return entity;
+	}
+
+}
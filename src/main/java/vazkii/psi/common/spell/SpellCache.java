@@ -8,6 +8,10 @@
  */
 package vazkii.psi.common.spell;
 
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.Util;
+import net.minecraftforge.fml.common.thread.EffectiveSide;
+
 import vazkii.psi.api.spell.CompiledSpell;
 import vazkii.psi.api.spell.ISpellCache;
 import vazkii.psi.api.spell.Spell;
@@ -17,6 +21,7 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public final class SpellCache implements ISpellCache {
 
@@ -32,17 +37,103 @@ protected boolean removeEldestEntry(Map.Entry<UUID, CompiledSpell> eldest) {
 
 	};
 
+	/**
+	 * Spells being compiled in the background, see {@link #precompile(Spell)}. Only touched on the
+	 * logical server thread, the workers just complete the futures.
+	 */
+	@SuppressWarnings("serial")
+	private static final Map<UUID, CompletableFuture<Optional<CompiledSpell>>> pending = new LinkedHashMap<UUID, CompletableFuture<Optional<CompiledSpell>>>() {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<UUID, CompletableFuture<Optional<CompiledSpell>>> eldest) {
+			return size() > ConfigHandler.COMMON.spellCacheSize.get();
+		}
+
+	};
+
+	private static long warmCompiles;
+	private static long coldCompiles;
+	private static long storedCompiles;
+
+	@SuppressWarnings("serial")
+	private static final Map<UUID, CompiledSpell> clientMap = new LinkedHashMap<UUID, CompiledSpell>() {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<UUID, CompiledSpell> eldest) {
+			return size() > ConfigHandler.COMMON.spellCacheSize.get();
+		}
+
+	};
+
 	@Override
 	public CompiledSpell getCompiledSpell(Spell spell) {
+		if (EffectiveSide.get().isClient()) {
+			return getClientCompiledSpell(spell);
+		}
+
 		if (map.containsKey(spell.uuid)) {
 			return map.get(spell.uuid);
 		}
 
-		Optional<CompiledSpell> result = new SpellCompiler().compile(spell).left();
+		Optional<CompiledSpell> result;
+		CompletableFuture<Optional<CompiledSpell>> future = pending.remove(spell.uuid);
+		CompiledSpell stored;
+		if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+			warmCompiles++;
+			result = future.join();
+			result.ifPresent(SpellPlanStore::save);
+		} else if ((stored = SpellPlanStore.load(spell)) != null) {
+			storedCompiles++;
+			result = Optional.of(stored);
+		} else {
+			coldCompiles++;
+			result = new SpellCompiler().compile(spell).left();
+			result.ifPresent(SpellPlanStore::save);
+		}
+
 		return result.map(compSpell -> {
 			map.put(spell.uuid, compSpell);
 			return compSpell;
 		}).orElse(null);
 	}
 
+	/**
+	 * The client compiles spells too when casting in singleplayer, it gets its own cache so it never touches
+	 * what the server thread uses.
+	 */
+	private static CompiledSpell getClientCompiledSpell(Spell spell) {
+		CompiledSpell compiled = clientMap.get(spell.uuid);
+		if (compiled == null) {
+			compiled = new SpellCompiler().compile(spell).left().orElse(null);
+			if (compiled != null) {
+				clientMap.put(spell.uuid, compiled);
+			}
+		}
+		return compiled;
+	}
+
+	@Override
+	public void precompile(Spell spell) {
+		if (map.containsKey(spell.uuid) || pending.containsKey(spell.uuid)) {
+			return;
+		}
+
+		// The worker gets its own copy, the original may still be edited in a programmer
+		CompoundNBT cmp = new CompoundNBT();
+		spell.writeToNBT(cmp);
+		Spell copy = Spell.createFromNBT(cmp);
+		if (copy != null) {
+			pending.put(spell.uuid, CompletableFuture.supplyAsync(() -> new SpellCompiler().compile(copy).left(), Util.getServerExecutor()));
+		}
+	}
+
+	/**
+	 * @return how many spells were looked up for the first time after being compiled in the background,
+	 *         how many had to be compiled on the spot, how many are still waiting in the background, and
+	 *         how many were rebuilt from the plans kept on disk by {@link SpellPlanStore}
+	 */
+	public static long[] getCompileCounts() {
+		return new long[] { warmCompiles, coldCompiles, pending.size(), storedCompiles };
+	}
+
 }
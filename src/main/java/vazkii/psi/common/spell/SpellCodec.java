@@ -0,0 +1,471 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+
+import net.minecraft.nbt.ByteNBT;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.INBT;
+import net.minecraft.nbt.IntNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.nbt.LongNBT;
+import net.minecraft.nbt.StringNBT;
+import net.minecraft.network.PacketBuffer;
+
+import vazkii.psi.api.spell.SpellGrid;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact binary encoding of spell NBT, for sending spells over the network. Piece keys and param names
+ * are written once per spell in a palette, cell positions and param sides are packed into single bytes and
+ * integer constants are written as numbers. Anything the encoding doesn't know about is kept as NBT, and a
+ * spell compound that doesn't have the expected shape at all is written as plain NBT, so decoding always
+ * gives back a compound equal to the one that was encoded.
+ */
+public final class SpellCodec {
+
+	public static final int VERSION = 1;
+
+	private static final byte MODE_NBT = 0;
+	private static final byte MODE_PACKED = 1;
+
+	// Keys of the spell NBT format, as written by Spell, SpellGrid and SpellPiece
+	private static final String TAG_VALID = "validSpell";
+	private static final String TAG_NAME = "spellName";
+	private static final String TAG_MODS = "modsRequired";
+	private static final String TAG_MOD_NAME = "modName";
+	private static final String TAG_MOD_VERSION = "modVersion";
+	private static final String TAG_UUID_MOST = "uuidMost";
+	private static final String TAG_UUID_LEAST = "uuidLeast";
+	private static final String TAG_LIST = "spellList";
+	private static final String TAG_X = "x";
+	private static final String TAG_Y = "y";
+	private static final String TAG_DATA = "data";
+	private static final String TAG_KEY = "key";
+	private static final String TAG_PARAMS = "params";
+	private static final String TAG_COMMENT = "comment";
+	private static final String TAG_CONSTANT = "constantValue";
+
+	private static final int HAS_VALID = 1;
+	private static final int HAS_NAME = 2;
+	private static final int HAS_MODS = 4;
+	private static final int HAS_UUID = 8;
+	private static final int HAS_LIST = 16;
+
+	private static final int PIECE_PARAMS = 1;
+	private static final int PIECE_COMMENT = 2;
+	private static final int PIECE_CONSTANT_INT = 4;
+	private static final int PIECE_CONSTANT_STRING = 8;
+	private static final int PIECE_EXTRA = 16;
+
+	private static final int SIDES = 5;
+
+	private SpellCodec() {}
+
+	public static void write(PacketBuffer buf, CompoundNBT cmp) {
+		int start = buf.writerIndex();
+		buf.writeVarInt(VERSION);
+		try {
+			buf.writeByte(MODE_PACKED);
+			writePacked(buf, cmp);
+		} catch (UnpackableException e) {
+			buf.writerIndex(start);
+			buf.writeVarInt(VERSION);
+			buf.writeByte(MODE_NBT);
+			buf.writeCompoundTag(cmp);
+		}
+	}
+
+	public static CompoundNBT read(PacketBuffer buf) {
+		int version = buf.readVarInt();
+		if (version != VERSION) {
+			throw new DecoderException("Unknown spell encoding version " + version);
+		}
+
+		if (buf.readByte() == MODE_NBT) {
+			CompoundNBT cmp = buf.readCompoundTag();
+			return cmp == null ? new CompoundNBT() : cmp;
+		}
+		return readPacked(buf);
+	}
+
+	public static byte[] encode(CompoundNBT cmp) {
+		PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+		write(buf, cmp);
+		byte[] bytes = new byte[buf.readableBytes()];
+		buf.readBytes(bytes);
+		return bytes;
+	}
+
+	public static CompoundNBT decode(byte[] bytes) {
+		return read(new PacketBuffer(Unpooled.wrappedBuffer(bytes)));
+	}
+
+	private static void writePacked(PacketBuffer buf, CompoundNBT cmp) throws UnpackableException {
+		int flags = 0;
+		for (String key : cmp.keySet()) {
+			switch (key) {
+			case TAG_VALID:
+				flags |= HAS_VALID;
+				check(cmp.get(key) instanceof ByteNBT);
+				break;
+			case TAG_NAME:
+				flags |= HAS_NAME;
+				check(cmp.get(key) instanceof StringNBT);
+				break;
+			case TAG_MODS:
+				flags |= HAS_MODS;
+				check(cmp.get(key) instanceof ListNBT);
+				break;
+			case TAG_UUID_MOST:
+			case TAG_UUID_LEAST:
+				flags |= HAS_UUID;
+				check(cmp.get(TAG_UUID_MOST) instanceof LongNBT && cmp.get(TAG_UUID_LEAST) instanceof LongNBT);
+				break;
+			case TAG_LIST:
+				flags |= HAS_LIST;
+				check(cmp.get(key) instanceof ListNBT);
+				break;
+			default:
+				throw UnpackableException.INSTANCE;
+			}
+		}
+
+		List<CompoundNBT> pieces = new ArrayList<>();
+		Object2IntMap<String> palette = new Object2IntLinkedOpenHashMap<>();
+		if ((flags & HAS_LIST) != 0) {
+			for (INBT entry : (ListNBT) cmp.get(TAG_LIST)) {
+				check(entry instanceof CompoundNBT);
+				CompoundNBT lcmp = (CompoundNBT) entry;
+				check(lcmp.size() == 3 && lcmp.get(TAG_X) instanceof IntNBT && lcmp.get(TAG_Y) instanceof IntNBT && lcmp.get(TAG_DATA) instanceof CompoundNBT);
+				check(SpellGrid.exists(lcmp.getInt(TAG_X), lcmp.getInt(TAG_Y)));
+
+				CompoundNBT data = lcmp.getCompound(TAG_DATA);
+				check(data.get(TAG_KEY) instanceof StringNBT);
+				addToPalette(palette, data.getString(TAG_KEY));
+				if (data.contains(TAG_PARAMS)) {
+					check(data.get(TAG_PARAMS) instanceof CompoundNBT);
+					CompoundNBT params = data.getCompound(TAG_PARAMS);
+					for (String param : params.keySet()) {
+						check(params.get(param) instanceof IntNBT);
+						int side = params.getInt(param);
+						check(side >= 0 && side < SIDES);
+						addToPalette(palette, param);
+					}
+				}
+				pieces.add(lcmp);
+			}
+		}
+
+		buf.writeByte(flags);
+		if ((flags & HAS_VALID) != 0) {
+			buf.writeByte(cmp.getByte(TAG_VALID));
+		}
+		if ((flags & HAS_NAME) != 0) {
+			buf.writeString(cmp.getString(TAG_NAME));
+		}
+		if ((flags & HAS_UUID) != 0) {
+			buf.writeLong(cmp.getLong(TAG_UUID_MOST));
+			buf.writeLong(cmp.getLong(TAG_UUID_LEAST));
+		}
+		if ((flags & HAS_MODS) != 0) {
+			writeMods(buf, (ListNBT) cmp.get(TAG_MODS));
+		}
+		if ((flags & HAS_LIST) != 0) {
+			buf.writeVarInt(palette.size());
+			for (String s : palette.keySet()) {
+				buf.writeString(s);
+			}
+
+			buf.writeVarInt(pieces.size());
+			for (CompoundNBT lcmp : pieces) {
+				buf.writeByte(lcmp.getInt(TAG_X) << 4 | lcmp.getInt(TAG_Y));
+				writePiece(buf, lcmp.getCompound(TAG_DATA), palette);
+			}
+		}
+	}
+
+	private static void writeMods(PacketBuffer buf, ListNBT mods) throws UnpackableException {
+		buf.writeVarInt(mods.size());
+		for (INBT entry : mods) {
+			check(entry instanceof CompoundNBT);
+			CompoundNBT mod = (CompoundNBT) entry;
+			boolean hasVersion = mod.get(TAG_MOD_VERSION) instanceof StringNBT;
+			check(mod.get(TAG_MOD_NAME) instanceof StringNBT && mod.size() == (hasVersion ? 2 : 1));
+
+			buf.writeString(mod.getString(TAG_MOD_NAME));
+			buf.writeBoolean(hasVersion);
+			if (hasVersion) {
+				buf.writeString(mod.getString(TAG_MOD_VERSION));
+			}
+		}
+	}
+
+	private static void writePiece(PacketBuffer buf, CompoundNBT data, Object2IntMap<String> palette) throws UnpackableException {
+		CompoundNBT extra = new CompoundNBT();
+		CompoundNBT params = null;
+		String comment = null;
+		String constant = null;
+		for (String key : data.keySet()) {
+			INBT tag = data.get(key);
+			if (key.equals(TAG_PARAMS)) {
+				params = (CompoundNBT) tag;
+			} else if (key.equals(TAG_COMMENT) && tag instanceof StringNBT) {
+				comment = tag.getString();
+			} else if (key.equals(TAG_CONSTANT) && tag instanceof StringNBT) {
+				constant = tag.getString();
+			} else if (!key.equals(TAG_KEY)) {
+				extra.put(key, tag.copy());
+			}
+		}
+
+		int flags = 0;
+		if (params != null) {
+			flags |= PIECE_PARAMS;
+		}
+		if (comment != null) {
+			flags |= PIECE_COMMENT;
+		}
+		if (constant != null) {
+			flags |= isPackableInt(constant) ? PIECE_CONSTANT_INT : PIECE_CONSTANT_STRING;
+		}
+		if (!extra.isEmpty()) {
+			flags |= PIECE_EXTRA;
+		}
+
+		buf.writeVarInt(palette.getInt(data.getString(TAG_KEY)));
+		buf.writeByte(flags);
+		if (params != null) {
+			buf.writeVarInt(params.size());
+			int packed = 0;
+			int i = 0;
+			for (String param : params.keySet()) {
+				buf.writeVarInt(palette.getInt(param));
+			}
+			// Sides fit in 4 bits, two of them go in a byte
+			for (String param : params.keySet()) {
+				packed |= params.getInt(param) << (i % 2 * 4);
+				if (i % 2 == 1) {
+					buf.writeByte(packed);
+					packed = 0;
+				}
+				i++;
+			}
+			if (i % 2 == 1) {
+				buf.writeByte(packed);
+			}
+		}
+		if (comment != null) {
+			buf.writeString(comment);
+		}
+		if (constant != null) {
+			if ((flags & PIECE_CONSTANT_INT) != 0) {
+				int value = Integer.parseInt(constant);
+				buf.writeVarInt(value << 1 ^ value >> 31);
+			} else {
+				buf.writeString(constant);
+			}
+		}
+		if (!extra.isEmpty()) {
+			buf.writeCompoundTag(extra);
+		}
+	}
+
+	private static CompoundNBT readPacked(PacketBuffer buf) {
+		CompoundNBT cmp = new CompoundNBT();
+		int flags = buf.readByte();
+		if ((flags & HAS_VALID) != 0) {
+			cmp.putByte(TAG_VALID, buf.readByte());
+		}
+		if ((flags & HAS_NAME) != 0) {
+			cmp.putString(TAG_NAME, buf.readString());
+		}
+		if ((flags & HAS_UUID) != 0) {
+			cmp.putLong(TAG_UUID_MOST, buf.readLong());
+			cmp.putLong(TAG_UUID_LEAST, buf.readLong());
+		}
+		if ((flags & HAS_MODS) != 0) {
+			ListNBT mods = new ListNBT();
+			int count = readCount(buf, Integer.MAX_VALUE);
+			for (int i = 0; i < count; i++) {
+				CompoundNBT mod = new CompoundNBT();
+				mod.putString(TAG_MOD_NAME, buf.readString());
+				if (buf.readBoolean()) {
+					mod.putString(TAG_MOD_VERSION, buf.readString());
+				}
+				mods.add(mod);
+			}
+			cmp.put(TAG_MODS, mods);
+		}
+		if ((flags & HAS_LIST) != 0) {
+			String[] palette = new String[readCount(buf, Integer.MAX_VALUE)];
+			for (int i = 0; i < palette.length; i++) {
+				palette[i] = buf.readString();
+			}
+
+			ListNBT list = new ListNBT();
+			int count = readCount(buf, SpellGrid.GRID_SIZE * SpellGrid.GRID_SIZE);
+			for (int i = 0; i < count; i++) {
+				int pos = buf.readUnsignedByte();
+				if (!SpellGrid.exists(pos >> 4, pos & 15)) {
+					throw new DecoderException("Spell piece outside of the grid");
+				}
+				CompoundNBT lcmp = new CompoundNBT();
+				lcmp.putInt(TAG_X, pos >> 4);
+				lcmp.putInt(TAG_Y, pos & 15);
+				lcmp.put(TAG_DATA, readPiece(buf, palette));
+				list.add(lcmp);
+			}
+			cmp.put(TAG_LIST, list);
+		}
+		return cmp;
+	}
+
+	private static CompoundNBT readPiece(PacketBuffer buf, String[] palette) {
+		CompoundNBT data = new CompoundNBT();
+		data.putString(TAG_KEY, readPaletteEntry(buf, palette));
+		int flags = buf.readByte();
+		if ((flags & PIECE_PARAMS) != 0) {
+			String[] names = new String[readCount(buf, Integer.MAX_VALUE)];
+			for (int i = 0; i < names.length; i++) {
+				names[i] = readPaletteEntry(buf, palette);
+			}
+
+			CompoundNBT params = new CompoundNBT();
+			int packed = 0;
+			for (int i = 0; i < names.length; i++) {
+				if (i % 2 == 0) {
+					packed = buf.readUnsignedByte();
+				}
+				params.putInt(names[i], packed >> (i % 2 * 4) & 15);
+			}
+			data.put(TAG_PARAMS, params);
+		}
+		if ((flags & PIECE_COMMENT) != 0) {
+			data.putString(TAG_COMMENT, buf.readString());
+		}
+		if ((flags & PIECE_CONSTANT_INT) != 0) {
+			int zigzag = buf.readVarInt();
+			data.putString(TAG_CONSTANT, Integer.toString(zigzag >>> 1 ^ -(zigzag & 1)));
+		} else if ((flags & PIECE_CONSTANT_STRING) != 0) {
+			data.putString(TAG_CONSTANT, buf.readString());
+		}
+		if ((flags & PIECE_EXTRA) != 0) {
+			CompoundNBT extra = buf.readCompoundTag();
+			if (extra != null) {
+				for (String key : extra.keySet()) {
+					data.put(key, extra.get(key));
+				}
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Reads a count sent by the other side, which can't be trusted: it can't be negative, over the limit, or more
+	 * than the bytes left, as every counted entry takes at least one byte.
+	 */
+	private static int readCount(PacketBuffer buf, int limit) {
+		int count = buf.readVarInt();
+		if (count < 0 || count > limit || count > buf.readableBytes()) {
+			throw new DecoderException("Invalid spell entry count " + count);
+		}
+		return count;
+	}
+
+	private static String readPaletteEntry(PacketBuffer buf, String[] palette) {
+		int index = buf.readVarInt();
+		if (index < 0 || index >= palette.length) {
+			throw new DecoderException("Invalid spell palette index " + index);
+		}
+		return palette[index];
+	}
+
+	private static boolean isPackableInt(String s) {
+		try {
+			return Integer.toString(Integer.parseInt(s)).equals(s);
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private static void addToPalette(Object2IntMap<String> palette, String s) {
+		if (!palette.containsKey(s)) {
+			palette.put(s, palette.size());
+		}
+	}
+
+	private static void check(boolean condition) throws UnpackableException {
+		if (!condition) {
+			throw UnpackableException.INSTANCE;
+		}
+	}
+
+	/**
+	 * Encodes every spell in the corpus both as NBT and with this codec, checking that each one decodes back
+	 * to the same compound.
+	 *
+	 * @return the total NBT size in bytes, the total encoded size, the number of spells that didn't round trip,
+	 *         and the nanoseconds spent writing and reading them as NBT and with this codec
+	 */
+	public static long[] benchmark(Collection<CompoundNBT> corpus, int rounds) {
+		long nbtBytes = 0;
+		long packedBytes = 0;
+		long failures = 0;
+		for (CompoundNBT cmp : corpus) {
+			PacketBuffer nbt = new PacketBuffer(Unpooled.buffer());
+			nbt.writeCompoundTag(cmp);
+			nbtBytes += nbt.readableBytes();
+
+			byte[] packed = encode(cmp);
+			packedBytes += packed.length;
+			if (!cmp.equals(decode(packed))) {
+				failures++;
+			}
+		}
+
+		long nbtStart = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			for (CompoundNBT cmp : corpus) {
+				PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+				buf.writeCompoundTag(cmp);
+				buf.readCompoundTag();
+			}
+		}
+		long nbtTime = System.nanoTime() - nbtStart;
+
+		long packedStart = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			for (CompoundNBT cmp : corpus) {
+				PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+				write(buf, cmp);
+				read(buf);
+			}
+		}
+		long packedTime = System.nanoTime() - packedStart;
+
+		return new long[] { nbtBytes, packedBytes, failures, nbtTime, packedTime };
+	}
+
+	private static class UnpackableException extends Exception {
+		private static final UnpackableException INSTANCE = new UnpackableException();
+
+		private UnpackableException() {
+			super(null, null, false, false);
+		}
+	}
+
+}
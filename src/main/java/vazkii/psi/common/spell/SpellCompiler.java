@@ -19,14 +19,22 @@
 import vazkii.psi.api.spell.ISpellCompiler;
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.SpellCompilationException;
+import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.api.spell.SpellGrid;
 import vazkii.psi.api.spell.SpellParam;
 import vazkii.psi.api.spell.SpellPiece;
+import vazkii.psi.api.spell.SpellRuntimeException;
+import vazkii.psi.api.spell.piece.PieceOperator;
+import vazkii.psi.common.spell.selector.entity.IEntityStreamConsumer;
+import vazkii.psi.common.spell.selector.entity.PieceSelectorNearby;
 
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -67,6 +75,9 @@ public CompiledSpell doCompile(Spell spell) throws SpellCompilationException {
 			buildPiece(trick);
 		}
 
+		foldConstants();
+		fuseSelectors();
+
 		if (compiled.metadata.getStat(EnumSpellStat.COST) < 0 || compiled.metadata.getStat(EnumSpellStat.POTENCY) < 0) {
 			throw new SpellCompilationException(SpellCompilationException.STAT_OVERFLOW);
 		}
@@ -178,6 +189,121 @@ public void buildRedirect(SpellPiece piece) throws SpellCompilationException {
 		}
 	}
 
+	/**
+	 * Runs every piece that only depends on constants once, storing its value as a literal
+	 * and removing it from the action stack.
+	 */
+	public void foldConstants() throws SpellCompilationException {
+		SpellContext context = new SpellContext();
+		Set<SpellPiece> folded = new HashSet<>();
+
+		// The stack is popped from the top, so pieces execute in reverse order
+		for (int i = compiled.actions.size() - 1; i >= 0; i--) {
+			SpellPiece piece = compiled.actions.get(i).piece;
+			if (!isFoldable(piece, folded)) {
+				continue;
+			}
+
+			try {
+				Object value = piece.execute(context);
+				context.evaluatedObjects[piece.x][piece.y] = value;
+				compiled.literals.put(piece, value);
+				folded.add(piece);
+			} catch (SpellRuntimeException | RuntimeException e) {
+				// Leave it for runtime, so the error happens when the spell is cast
+			}
+		}
+
+		for (SpellPiece piece : folded) {
+			compiled.actions.remove(compiled.actionMap.remove(piece));
+		}
+	}
+
+	/**
+	 * Fuses every nearby selector that's only read by a single {@link IEntityStreamConsumer} into it, removing the
+	 * selector from the action stack. The consumer then goes through the selector's targets itself, so the entity
+	 * list is never built or sorted. Only done when no trick runs between the two, so the query still sees the
+	 * same world, when neither has an error handler, and when the selector doesn't change what the list holds.
+	 */
+	public void fuseSelectors() throws SpellCompilationException {
+		Set<SpellPiece> readers = new LinkedHashSet<>(compiled.actionMap.keySet());
+		for (CatchHandler handler : compiled.errorHandlers.values()) {
+			readers.add(handler.handlerPiece);
+		}
+
+		Map<SpellPiece, SpellPiece> consumers = new HashMap<>();
+		Set<SpellPiece> shared = new HashSet<>();
+		for (SpellPiece reader : readers) {
+			for (Map.Entry<SpellParam<?>, SpellParam.Side> param : reader.paramSides.entrySet()) {
+				if (!param.getValue().isEnabled()) {
+					continue;
+				}
+
+				SpellPiece source = compiled.sourceSpell.grid.getPieceAtSideWithRedirections(reader.x, reader.y, param.getValue());
+				if (!PieceSelectorNearby.canStream(source)) {
+					continue;
+				}
+
+				boolean streams = reader instanceof IEntityStreamConsumer && ((IEntityStreamConsumer) reader).getStreamedParam() == param.getKey();
+				if (!streams || consumers.put(source, reader) != null) {
+					shared.add(source);
+				}
+			}
+		}
+
+		for (Map.Entry<SpellPiece, SpellPiece> entry : consumers.entrySet()) {
+			SpellPiece source = entry.getKey();
+			SpellPiece consumer = entry.getValue();
+			Action sourceAction = compiled.actionMap.get(source);
+			Action consumerAction = compiled.actionMap.get(consumer);
+			if (shared.contains(source) || sourceAction == null || consumerAction == null
+					|| compiled.errorHandlers.containsKey(source) || compiled.errorHandlers.containsKey(consumer)) {
+				continue;
+			}
+
+			// The stack is popped from the top, so the source runs first and everything between runs before the consumer
+			int sourceIndex = compiled.actions.indexOf(sourceAction);
+			int consumerIndex = compiled.actions.indexOf(consumerAction);
+			if (sourceIndex < consumerIndex || hasTrickBetween(consumerIndex, sourceIndex)) {
+				continue;
+			}
+
+			compiled.actions.remove(sourceAction);
+			compiled.actionMap.remove(source);
+			compiled.fusedSelectors.put(consumer, source);
+		}
+	}
+
+	private boolean hasTrickBetween(int from, int to) {
+		for (int i = from + 1; i < to; i++) {
+			if (compiled.actions.get(i).piece.getPieceType().isTrick()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isFoldable(SpellPiece piece, Set<SpellPiece> folded) throws SpellCompilationException {
+		if (piece.getPieceType() == EnumPieceType.CONSTANT) {
+			return piece.params.isEmpty();
+		}
+		if (!(piece instanceof PieceOperator) || !((PieceOperator) piece).isPure()) {
+			return false;
+		}
+
+		for (SpellParam.Side side : piece.paramSides.values()) {
+			if (!side.isEnabled()) {
+				continue;
+			}
+
+			SpellPiece source = compiled.sourceSpell.grid.getPieceAtSideWithRedirections(piece.x, piece.y, side);
+			if (source == null || !folded.contains(source)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/** @return whether this piece should get skipped over */
 	private boolean checkSideDisabled(SpellParam<?> param, SpellPiece parent, EnumSet<SpellParam.Side> seen) throws SpellCompilationException {
 		SpellParam.Side side = parent.paramSides.get(param);
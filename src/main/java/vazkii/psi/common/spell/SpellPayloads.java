@@ -0,0 +1,61 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell;
+
+import net.minecraft.nbt.CompoundNBT;
+
+import vazkii.psi.api.spell.Spell;
+import vazkii.psi.common.core.handler.ConfigHandler;
+
+import javax.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hash-consed spells read from item NBT. Every stack holding the same spell compound gets the same
+ * {@link Spell} instance, so reading a bullet doesn't rebuild its grid and copies of a bullet share one
+ * spell in memory. The spells handed out are shared and must never be modified, use {@link Spell#copy()}
+ * to get one that can be edited.
+ */
+public final class SpellPayloads {
+
+	@SuppressWarnings("serial")
+	private static final Map<CompoundNBT, Spell> spells = new LinkedHashMap<CompoundNBT, Spell>(16, 0.75F, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<CompoundNBT, Spell> eldest) {
+			return size() > ConfigHandler.COMMON.spellCacheSize.get();
+		}
+
+	};
+
+	private SpellPayloads() {}
+
+	/**
+	 * Gets the shared spell for the given spell compound, or null if it doesn't hold a valid spell.
+	 */
+	@Nullable
+	public static synchronized Spell get(CompoundNBT cmp) {
+		if (cmp.isEmpty()) {
+			return null;
+		}
+
+		Spell spell = spells.get(cmp);
+		if (spell == null) {
+			spell = Spell.createFromNBT(cmp);
+			if (spell != null) {
+				// Stored under a copy, so the key can't change if the stack's compound is ever edited in place
+				spells.put(cmp.copy(), spell);
+			}
+		}
+		return spell;
+	}
+
+}
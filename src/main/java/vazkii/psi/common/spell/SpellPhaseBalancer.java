@@ -0,0 +1,91 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell;
+
+/**
+ * Spreads casters that fire every {@link #PERIOD} ticks (loopcasts and spell circles) over the ticks of
+ * the period, so casters that start together don't all fire on the same tick. A new caster is delayed
+ * by up to one period so that it lands on the phase that had the fewest spell executions recently;
+ * from then on its cadence is unchanged.
+ */
+public final class SpellPhaseBalancer {
+
+	public static final int PERIOD = 5;
+	public static final int WINDOW = PERIOD * 20;
+
+	/** Spell executions per tick over the last {@link #WINDOW} ticks */
+	private static final int[] executions = new int[WINDOW];
+	/** Expected load of casters that haven't cast yet, by the tick of their first cast */
+	private static final int[] reservations = new int[WINDOW];
+	private static long tick;
+
+	/**
+	 * Called by the {@link SpellScheduler} at the start of every server tick.
+	 */
+	static void onTickStart() {
+		tick++;
+		executions[(int) (tick % WINDOW)] = 0;
+		reservations[(int) (tick % WINDOW)] = 0;
+	}
+
+	public static void recordExecution() {
+		executions[(int) (tick % WINDOW)]++;
+	}
+
+	/**
+	 * Picks how long a new caster should wait on top of its usual delay before its first cast.
+	 *
+	 * @param firstCastIn how many ticks from now the caster would first cast without any extra delay
+	 * @return the extra delay, between 0 and {@link #PERIOD} - 1
+	 */
+	public static int pickDelay(int firstCastIn) {
+		int[] load = getPhaseLoad();
+		for (int i = 0; i < WINDOW; i++) {
+			load[i % PERIOD] += reservations[i];
+		}
+
+		int best = 0;
+		for (int delay = 1; delay < PERIOD; delay++) {
+			if (load[phaseOf(tick + firstCastIn + delay)] < load[phaseOf(tick + firstCastIn + best)]) {
+				best = delay;
+			}
+		}
+
+		// Count the caster as if it already ran for the whole window, until its first cast comes around
+		reservations[(int) ((tick + firstCastIn + best) % WINDOW)] += WINDOW / PERIOD;
+		return best;
+	}
+
+	private static int phaseOf(long tick) {
+		return (int) (tick % PERIOD);
+	}
+
+	/**
+	 * Gets the spell executions of the last {@link #WINDOW} ticks, summed per phase.
+	 */
+	public static int[] getPhaseLoad() {
+		int[] load = new int[PERIOD];
+		for (int i = 0; i < WINDOW; i++) {
+			load[i % PERIOD] += executions[i];
+		}
+		return load;
+	}
+
+	/**
+	 * Gets the highest amount of spells that ran in a single tick in the last {@link #WINDOW} ticks.
+	 */
+	public static int getPeakExecutions() {
+		int peak = 0;
+		for (int count : executions) {
+			peak = Math.max(peak, count);
+		}
+		return peak;
+	}
+
+}
@@ -0,0 +1,423 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+import vazkii.psi.api.PsiAPI;
+import vazkii.psi.api.spell.CompiledSpell;
+import vazkii.psi.api.spell.CompiledSpell.Action;
+import vazkii.psi.api.spell.CompiledSpell.CatchHandler;
+import vazkii.psi.api.spell.IErrorCatcher;
+import vazkii.psi.api.spell.Spell;
+import vazkii.psi.api.spell.SpellContext;
+import vazkii.psi.api.spell.SpellGrid;
+import vazkii.psi.api.spell.SpellPiece;
+import vazkii.psi.api.spell.SpellRuntimeException;
+import vazkii.psi.common.Psi;
+import vazkii.psi.common.core.handler.ConfigHandler;
+import vazkii.psi.common.lib.LibMisc;
+
+import javax.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the compiled form of spells on disk, so spells cast after a restart don't have to be compiled again.
+ * A plan is the action order, error handlers, metadata and folded pieces of a compiled spell, keyed by a hash
+ * of the spell's grid. The file is an append-only log that is memory mapped the first time a spell is looked
+ * up, and starts over whenever the piece registry or the version of any mod adding pieces changes.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public final class SpellPlanStore {
+
+	public static final long MAGIC = 0x7073692D706C616EL; // "psi-plan"
+	public static final int VERSION = 3;
+
+	/** Files bigger than this are started over instead of loaded */
+	private static final long MAX_SIZE = 16 << 20;
+	private static final int DIGEST_LENGTH = 32;
+	private static final int HEADER_LENGTH = 8 + 4 + DIGEST_LENGTH;
+
+	private static final String TAG_METADATA = "metadata";
+	private static final String TAG_ACTIONS = "actions";
+	private static final String TAG_HANDLERS = "handlers";
+	private static final String TAG_LITERALS = "literals";
+	private static final String TAG_FUSED = "fused";
+
+	@Nullable
+	private static SpellPlanStore instance;
+	private static boolean opened;
+
+	private final FileChannel channel;
+	@Nullable
+	private final MappedByteBuffer mapped;
+	/** First 8 bytes of the grid digest to the entries with it */
+	private final Long2ObjectMap<List<Entry>> index = new Long2ObjectOpenHashMap<>();
+	/** Where the next entry gets written */
+	private long end;
+
+	private static class Entry {
+		private final byte[] digest;
+		private final int offset;
+		private final int length;
+		/** The plan of entries written since the file was mapped, which the mapping doesn't cover */
+		@Nullable
+		private final byte[] plan;
+
+		private Entry(byte[] digest, int offset, int length, @Nullable byte[] plan) {
+			this.digest = digest;
+			this.offset = offset;
+			this.length = length;
+			this.plan = plan;
+		}
+	}
+
+	private SpellPlanStore(Path file, byte[] fingerprint) throws IOException {
+		Files.createDirectories(file.getParent());
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		long size = channel.size();
+		boolean valid = false;
+		if (size >= HEADER_LENGTH && size <= MAX_SIZE) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			channel.read(header, 0);
+			header.flip();
+			byte[] stored = new byte[DIGEST_LENGTH];
+			long magic = header.getLong();
+			int version = header.getInt();
+			header.get(stored);
+			valid = magic == MAGIC && version == VERSION && Arrays.equals(stored, fingerprint);
+		}
+
+		end = HEADER_LENGTH;
+		if (!valid) {
+			// Missing, outdated or too big, so start over. Nothing is mapped yet, so the file can be truncated
+			channel.truncate(0);
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			header.putLong(MAGIC).putInt(VERSION).put(fingerprint).flip();
+			channel.write(header, 0);
+			mapped = null;
+			return;
+		}
+
+		MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		buf.position(HEADER_LENGTH);
+		mapped = buf;
+		// Entries are [plan length][grid digest][plan], a write cut short by a crash ends the log
+		while (buf.remaining() >= 4 + DIGEST_LENGTH) {
+			int length = buf.getInt();
+			if (length < 0 || buf.remaining() < DIGEST_LENGTH + length) {
+				break;
+			}
+
+			byte[] digest = new byte[DIGEST_LENGTH];
+			buf.get(digest);
+			int offset = buf.position();
+			buf.position(offset + length);
+			index(new Entry(digest, offset, length, null));
+			end = buf.position();
+		}
+	}
+
+	private void index(Entry entry) {
+		index.computeIfAbsent(ByteBuffer.wrap(entry.digest).getLong(), k -> new ArrayList<>(1)).add(entry);
+	}
+
+	@Nullable
+	private Entry find(byte[] digest) {
+		List<Entry> entries = index.get(ByteBuffer.wrap(digest).getLong());
+		if (entries != null) {
+			for (Entry entry : entries) {
+				if (Arrays.equals(entry.digest, digest)) {
+					return entry;
+				}
+			}
+		}
+		return null;
+	}
+
+	private CompoundNBT read(Entry entry) throws IOException {
+		byte[] plan = entry.plan;
+		if (plan == null) {
+			plan = new byte[entry.length];
+			ByteBuffer view = mapped.duplicate();
+			view.position(entry.offset);
+			view.get(plan);
+		}
+		return CompressedStreamTools.read(new DataInputStream(new ByteArrayInputStream(plan)));
+	}
+
+	private void write(byte[] digest, CompoundNBT cmp) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		CompressedStreamTools.write(cmp, new DataOutputStream(bytes));
+		byte[] plan = bytes.toByteArray();
+
+		ByteBuffer buf = ByteBuffer.allocate(4 + DIGEST_LENGTH + plan.length);
+		buf.putInt(plan.length).put(digest).put(plan).flip();
+		channel.write(buf, end);
+		index(new Entry(digest, (int) end + 4 + DIGEST_LENGTH, plan.length, plan));
+		end += buf.limit();
+	}
+
+	@Nullable
+	private static SpellPlanStore get() {
+		MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+		if (!opened && server != null) {
+			opened = true;
+			if (ConfigHandler.COMMON.persistSpellCache.get()) {
+				Path file = server.getDataDirectory().toPath().resolve("psi-cache").resolve("spell-plans.bin");
+				try {
+					instance = new SpellPlanStore(file, getFingerprint());
+				} catch (IOException e) {
+					Psi.logger.error("Failed to open the compiled spell cache, spells will be compiled on their first cast", e);
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Looks up the stored plan of the spell and rebuilds the compiled spell from it.
+	 *
+	 * @return the compiled spell, or null if there's no usable plan for it
+	 */
+	@Nullable
+	public static synchronized CompiledSpell load(Spell spell) {
+		SpellPlanStore store = get();
+		if (store == null) {
+			return null;
+		}
+
+		Entry entry = store.find(hash(spell));
+		if (entry == null) {
+			return null;
+		}
+
+		try {
+			return restore(spell, store.read(entry));
+		} catch (IOException e) {
+			Psi.logger.error("Failed to read a compiled spell from the cache", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the plan of a freshly compiled spell, unless one with the same grid is stored already.
+	 */
+	public static synchronized void save(CompiledSpell compiled) {
+		SpellPlanStore store = get();
+		if (store == null || store.end > MAX_SIZE) {
+			return;
+		}
+
+		byte[] digest = hash(compiled.sourceSpell);
+		if (store.find(digest) != null) {
+			return;
+		}
+
+		try {
+			store.write(digest, createPlan(compiled));
+		} catch (IOException e) {
+			Psi.logger.error("Failed to write a compiled spell to the cache", e);
+		}
+	}
+
+	public static synchronized void close() {
+		if (instance != null) {
+			try {
+				instance.channel.close();
+			} catch (IOException e) {
+				Psi.logger.error("Failed to close the compiled spell cache", e);
+			}
+		}
+		instance = null;
+		opened = false;
+	}
+
+	@SubscribeEvent
+	public static void onServerStopped(FMLServerStoppedEvent event) {
+		close();
+	}
+
+	private static byte pack(SpellPiece piece) {
+		return (byte) (piece.x << 4 | piece.y);
+	}
+
+	@Nullable
+	private static SpellPiece unpack(Spell spell, byte packed) {
+		int x = packed >> 4 & 15;
+		int y = packed & 15;
+		return SpellGrid.exists(x, y) ? spell.grid.gridData[x][y] : null;
+	}
+
+	private static CompoundNBT createPlan(CompiledSpell compiled) {
+		CompoundNBT cmp = new CompoundNBT();
+
+		CompoundNBT metadata = new CompoundNBT();
+		compiled.metadata.writeToNBT(metadata);
+		cmp.put(TAG_METADATA, metadata);
+
+		// Bottom of the stack first, so the order survives being pushed back
+		byte[] actions = new byte[compiled.actions.size()];
+		for (int i = 0; i < actions.length; i++) {
+			actions[i] = pack(compiled.actions.get(i).piece);
+		}
+		cmp.putByteArray(TAG_ACTIONS, actions);
+
+		byte[] handlers = new byte[compiled.errorHandlers.size() * 2];
+		int i = 0;
+		for (Map.Entry<SpellPiece, CatchHandler> handler : compiled.errorHandlers.entrySet()) {
+			handlers[i++] = pack(handler.getKey());
+			handlers[i++] = pack(handler.getValue().handlerPiece);
+		}
+		cmp.putByteArray(TAG_HANDLERS, handlers);
+
+		// Only where the folded pieces are, they're cheap to run again and their values aren't always serializable
+		byte[] literals = new byte[compiled.literals.size()];
+		i = 0;
+		for (SpellPiece piece : compiled.literals.keySet()) {
+			literals[i++] = pack(piece);
+		}
+		cmp.putByteArray(TAG_LITERALS, literals);
+
+		byte[] fused = new byte[compiled.fusedSelectors.size() * 2];
+		i = 0;
+		for (Map.Entry<SpellPiece, SpellPiece> selector : compiled.fusedSelectors.entrySet()) {
+			fused[i++] = pack(selector.getKey());
+			fused[i++] = pack(selector.getValue());
+		}
+		cmp.putByteArray(TAG_FUSED, fused);
+		return cmp;
+	}
+
+	@Nullable
+	private static CompiledSpell restore(Spell spell, CompoundNBT cmp) {
+		CompiledSpell compiled = new CompiledSpell(spell);
+		compiled.metadata.readFromNBT(cmp.getCompound(TAG_METADATA));
+
+		for (byte packed : cmp.getByteArray(TAG_ACTIONS)) {
+			SpellPiece piece = unpack(spell, packed);
+			if (piece == null) {
+				return null;
+			}
+			Action action = compiled.new Action(piece);
+			compiled.actions.add(action);
+			compiled.actionMap.put(piece, action);
+		}
+
+		byte[] handlers = cmp.getByteArray(TAG_HANDLERS);
+		Map<SpellPiece, CatchHandler> catchHandlers = new IdentityHashMap<>();
+		for (int i = 0; i + 1 < handlers.length; i += 2) {
+			SpellPiece handled = unpack(spell, handlers[i]);
+			SpellPiece handler = unpack(spell, handlers[i + 1]);
+			if (handled == null || !(handler instanceof IErrorCatcher)) {
+				return null;
+			}
+			compiled.errorHandlers.put(handled, catchHandlers.computeIfAbsent(handler, h -> compiled.new CatchHandler(h)));
+		}
+
+		byte[] fused = cmp.getByteArray(TAG_FUSED);
+		for (int i = 0; i + 1 < fused.length; i += 2) {
+			SpellPiece consumer = unpack(spell, fused[i]);
+			SpellPiece selector = unpack(spell, fused[i + 1]);
+			if (consumer == null || selector == null) {
+				return null;
+			}
+			compiled.fusedSelectors.put(consumer, selector);
+		}
+
+		SpellContext context = new SpellContext();
+		for (byte packed : cmp.getByteArray(TAG_LITERALS)) {
+			SpellPiece piece = unpack(spell, packed);
+			if (piece == null) {
+				return null;
+			}
+
+			try {
+				Object value = piece.execute(context);
+				context.evaluatedObjects[piece.x][piece.y] = value;
+				compiled.literals.put(piece, value);
+			} catch (SpellRuntimeException | RuntimeException e) {
+				return null;
+			}
+		}
+		return compiled;
+	}
+
+	/**
+	 * Hashes the grid of the spell, which is all a plan depends on.
+	 */
+	static byte[] hash(Spell spell) {
+		CompoundNBT cmp = new CompoundNBT();
+		spell.grid.writeToNBT(cmp);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			CompressedStreamTools.write(cmp, new DataOutputStream(bytes));
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return newDigest().digest(bytes.toByteArray());
+	}
+
+	/**
+	 * Hashes every registered piece along with the version of the mod adding it, plans are only valid as
+	 * long as these stay the same.
+	 */
+	private static byte[] getFingerprint() {
+		MessageDigest digest = newDigest();
+		Set<ResourceLocation> keys = PsiAPI.getSpellPieceRegistry().keySet();
+		keys.stream().sorted().forEach(key -> {
+			String version = ModList.get().getModContainerById(key.getNamespace())
+					.map(container -> container.getModInfo().getVersion().toString()).orElse("");
+			digest.update((key + "@" + version + ";").getBytes(StandardCharsets.UTF_8));
+		});
+		return digest.digest();
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell;
+
+import vazkii.psi.api.spell.CompiledSpell;
+import vazkii.psi.api.spell.ISpellProfiler;
+import vazkii.psi.api.spell.SpellPiece;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per piece class and per spell execution stats, toggled with /psi profile. Spells are told apart
+ * by the SHA-256 of their grid, so copies of the same spell on different bullets add up.
+ */
+public final class SpellProfiler implements ISpellProfiler {
+
+	@Nullable
+	private static SpellProfiler active;
+	@Nullable
+	private static SpellProfiler last;
+
+	private final long startTime = System.currentTimeMillis();
+	private long stopTime;
+
+	private final Map<Class<? extends SpellPiece>, Stats> pieceStats = new HashMap<>();
+	private final Map<String, Stats> spellStats = new HashMap<>();
+	private final Map<CompiledSpell, Stats> compiledSpells = new WeakHashMap<>();
+
+	/** ThreadMXBean#getThreadAllocatedBytes(long) bound to the JVM's bean, if the JVM has it */
+	@Nullable
+	private final MethodHandle allocatedBytes;
+
+	private SpellProfiler() {
+		allocatedBytes = findAllocatedBytes();
+	}
+
+	/**
+	 * Looks the allocation counter up reflectively, it's only there on HotSpot based JVMs.
+	 */
+	@Nullable
+	private static MethodHandle findAllocatedBytes() {
+		try {
+			Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean");
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (!beanClass.isInstance(bean)) {
+				return null;
+			}
+
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			boolean supported = (boolean) lookup.findVirtual(beanClass, "isThreadAllocatedMemorySupported", MethodType.methodType(boolean.class)).invoke(bean);
+			if (!supported) {
+				return null;
+			}
+			lookup.findVirtual(beanClass, "setThreadAllocatedMemoryEnabled", MethodType.methodType(void.class, boolean.class)).invoke(bean, true);
+			return lookup.findVirtual(beanClass, "getThreadAllocatedBytes", MethodType.methodType(long.class, long.class)).bindTo(bean);
+		} catch (Throwable e) {
+			return null;
+		}
+	}
+
+	@Nullable
+	public static SpellProfiler getActive() {
+		return active;
+	}
+
+	/**
+	 * @return false if the profiler was already running
+	 */
+	public static boolean start() {
+		if (active != null) {
+			return false;
+		}
+		active = new SpellProfiler();
+		last = active;
+		return true;
+	}
+
+	/**
+	 * @return false if the profiler wasn't running
+	 */
+	public static boolean stop() {
+		if (active == null) {
+			return false;
+		}
+		active.stopTime = System.currentTimeMillis();
+		active = null;
+		return true;
+	}
+
+	/**
+	 * Gets the running profiler, or the last one that ran if it's stopped.
+	 */
+	@Nullable
+	public static SpellProfiler getLast() {
+		return last;
+	}
+
+	@Override
+	public long getAllocatedBytes() {
+		if (allocatedBytes == null) {
+			return 0;
+		}
+
+		try {
+			return (long) allocatedBytes.invokeExact(Thread.currentThread().getId());
+		} catch (Throwable e) {
+			return 0;
+		}
+	}
+
+	@Override
+	public void begin(CompiledSpell spell) {
+		compiledSpells.computeIfAbsent(spell, this::getSpellStats).calls++;
+	}
+
+	@Override
+	public void record(CompiledSpell spell, SpellPiece piece, long nanos, long allocatedBytes) {
+		Stats pieces = pieceStats.computeIfAbsent(piece.getClass(), c -> new Stats(piece.registryKey.toString()));
+		pieces.calls++;
+		pieces.add(nanos, allocatedBytes);
+		compiledSpells.computeIfAbsent(spell, this::getSpellStats).add(nanos, allocatedBytes);
+	}
+
+	private Stats getSpellStats(CompiledSpell spell) {
+		String hash = String.format("%064x", new BigInteger(1, SpellPlanStore.hash(spell.sourceSpell)));
+		return spellStats.computeIfAbsent(hash, h -> new Stats(h.substring(0, 16) + " " + spell.sourceSpell.name));
+	}
+
+	/**
+	 * Writes a report with the pieces and spells sorted by total time spent in them.
+	 */
+	public void dump(Path file) throws IOException {
+		try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+			long end = stopTime == 0 ? System.currentTimeMillis() : stopTime;
+			writer.printf("Psi spell profile, %.1f seconds%n", (end - startTime) / 1000.0);
+			if (allocatedBytes == null) {
+				writer.println("Allocation tracking is not supported by this JVM");
+			}
+
+			writer.println();
+			writer.println("Pieces:");
+			write(writer, pieceStats.values());
+
+			writer.println();
+			writer.println("Spells (grid hash and name):");
+			write(writer, spellStats.values());
+		}
+	}
+
+	private static void write(PrintWriter writer, Iterable<Stats> stats) {
+		List<Stats> sorted = new ArrayList<>();
+		stats.forEach(sorted::add);
+		sorted.sort(Comparator.comparingLong((Stats s) -> s.nanos).reversed());
+
+		writer.printf("%-48s %12s %14s %12s %16s%n", "name", "calls", "total ms", "avg ns", "alloc bytes");
+		for (Stats s : sorted) {
+			writer.printf("%-48s %12d %14.3f %12d %16d%n", s.name, s.calls, s.nanos / 1_000_000.0, s.nanos / Math.max(1, s.calls), s.allocated);
+		}
+	}
+
+	private static class Stats {
+		private final String name;
+		private long calls;
+		private long nanos;
+		private long allocated;
+
+		private Stats(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Adds the time and memory of a piece. Calls are counted separately, since a spell runs many pieces.
+		 */
+		private void add(long nanos, long allocated) {
+			this.nanos += nanos;
+			this.allocated += allocated;
+		}
+	}
+
+}
@@ -0,0 +1,181 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import vazkii.psi.api.spell.SpellContext;
+import vazkii.psi.common.core.handler.ConfigHandler;
+import vazkii.psi.common.core.handler.SpellMineHandler;
+import vazkii.psi.common.lib.LibMisc;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps spells within a per tick time budget. Each caster gets an equal share of the budget, and
+ * once a caster is over its share (or the server is over the whole budget) its spells wait in a
+ * queue for the next tick. Queued spells run before anything else at the start of a tick, and
+ * every caster gets to run at least one spell per tick so a single heavy spell can't stall. Only spells
+ * focused on the caster are ever queued, the others run right away.
+ */
+@Mod.EventBusSubscriber(modid = LibMisc.MOD_ID)
+public final class SpellScheduler {
+
+	private static final Map<PlayerEntity, Caster> casters = new LinkedHashMap<>();
+
+	private static long budget;
+	private static long fairShare;
+	private static long used;
+
+	// Metrics, reset every time they're reported
+	private static int ticks;
+	private static long totalUsed;
+	private static int executed;
+	private static int deferred;
+	private static int dropped;
+	private static int peakQueued;
+
+	private static class Caster {
+		private final Deque<SpellContext> queue = new ArrayDeque<>();
+		private long used;
+		private boolean ran;
+	}
+
+	public static void schedule(SpellContext context) {
+		if (ConfigHandler.COMMON.spellTickBudget.get() <= 0) {
+			SpellPhaseBalancer.recordExecution();
+			context.cspell.executeNow(context);
+			SpellMineHandler.invalidate(context.caster.world);
+			return;
+		}
+
+		Caster caster = casters.computeIfAbsent(context.caster, p -> new Caster());
+		// Spells cast from projectiles, circles and the like still count against the budget but always run now,
+		// as their focal point is usually removed right after and circles rely on running within the same tick
+		if (context.focalPoint != context.caster) {
+			run(caster, context);
+			return;
+		}
+
+		if (!caster.queue.isEmpty() || !canRun(caster)) {
+			caster.queue.add(context);
+			deferred++;
+			return;
+		}
+
+		run(caster, context);
+	}
+
+	private static boolean canRun(Caster caster) {
+		return !caster.ran || (used < budget && caster.used < fairShare);
+	}
+
+	private static void run(Caster caster, SpellContext context) {
+		SpellPhaseBalancer.recordExecution();
+		long start = System.nanoTime();
+		try {
+			context.cspell.executeNow(context);
+		} finally {
+			SpellMineHandler.invalidate(context.caster.world);
+			long time = System.nanoTime() - start;
+			caster.used += time;
+			caster.ran = true;
+			used += time;
+			executed++;
+		}
+	}
+
+	@SubscribeEvent
+	public static void onServerTick(TickEvent.ServerTickEvent event) {
+		if (event.phase != TickEvent.Phase.START) {
+			return;
+		}
+
+		SpellPhaseBalancer.onTickStart();
+
+		if (budget > 0) {
+			totalUsed += used;
+			ticks++;
+		}
+
+		int active = 0;
+		int queued = 0;
+		Iterator<Map.Entry<PlayerEntity, Caster>> iterator = casters.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<PlayerEntity, Caster> entry = iterator.next();
+			Caster caster = entry.getValue();
+			if (entry.getKey().removed) {
+				dropped += caster.queue.size();
+				iterator.remove();
+				continue;
+			}
+
+			if (caster.ran || !caster.queue.isEmpty()) {
+				active++;
+			} else {
+				iterator.remove();
+				continue;
+			}
+
+			queued += caster.queue.size();
+			caster.used = 0;
+			caster.ran = false;
+		}
+		peakQueued = Math.max(peakQueued, queued);
+
+		budget = ConfigHandler.COMMON.spellTickBudget.get() * 1_000_000L;
+		fairShare = budget / Math.max(1, active);
+		used = 0;
+
+		if (queued > 0) {
+			drain();
+		}
+	}
+
+	/**
+	 * Runs queued spells one caster at a time, round robin, until nobody can run anything else this tick.
+	 */
+	private static void drain() {
+		boolean progress = true;
+		while (progress) {
+			progress = false;
+			for (Caster caster : casters.values().toArray(new Caster[0])) {
+				if (!caster.queue.isEmpty() && canRun(caster)) {
+					run(caster, caster.queue.poll());
+					progress = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the metrics gathered since the last call and resets them.
+	 *
+	 * @return ticks counted, average budget use in percent, executed spells, deferred spells, dropped spells, peak queue size
+	 */
+	public static long[] pollMetrics() {
+		long averageUse = ticks == 0 || budget == 0 ? 0 : totalUsed * 100 / ticks / budget;
+		long[] metrics = { ticks, averageUse, executed, deferred, dropped, peakQueued };
+		ticks = 0;
+		totalUsed = 0;
+		executed = 0;
+		deferred = 0;
+		dropped = 0;
+		peakQueued = 0;
+		return metrics;
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import vazkii.psi.api.spell.IWorldReadCache;
+
+public final class WorldReadCache implements IWorldReadCache {
+
+	private static final int UNKNOWN = -1;
+
+	private final World world;
+
+	private final Long2ObjectMap<BlockState> states = new Long2ObjectOpenHashMap<>();
+	private final LongSet tiles = new LongOpenHashSet();
+	private final LongSet noTiles = new LongOpenHashSet();
+	private final Long2IntMap light = new Long2IntOpenHashMap();
+	/** Whether blocks may be modified doesn't depend on the blocks, so this one survives invalidation */
+	private final LongSet modifiable = new LongOpenHashSet();
+	private final LongSet unmodifiable = new LongOpenHashSet();
+	private PlayerEntity modifyingPlayer;
+
+	private long time;
+
+	public WorldReadCache(World world) {
+		this.world = world;
+		this.time = world.getGameTime();
+		light.defaultReturnValue(UNKNOWN);
+	}
+
+	@Override
+	public World getWorld() {
+		return world;
+	}
+
+	private void checkTime() {
+		long now = world.getGameTime();
+		if (now != time) {
+			time = now;
+			invalidateAll();
+			modifiable.clear();
+			unmodifiable.clear();
+		}
+	}
+
+	@Override
+	public BlockState getBlockState(BlockPos pos) {
+		checkTime();
+		long key = pos.toLong();
+		BlockState state = states.get(key);
+		if (state == null) {
+			state = world.getBlockState(pos);
+			states.put(key, state);
+		}
+		return state;
+	}
+
+	@Override
+	public boolean hasTileEntity(BlockPos pos) {
+		checkTime();
+		long key = pos.toLong();
+		if (tiles.contains(key)) {
+			return true;
+		}
+		if (noTiles.contains(key)) {
+			return false;
+		}
+
+		boolean hasTile = world.getTileEntity(pos) != null;
+		(hasTile ? tiles : noTiles).add(key);
+		return hasTile;
+	}
+
+	@Override
+	public int getLight(BlockPos pos) {
+		checkTime();
+		long key = pos.toLong();
+		int value = light.get(key);
+		if (value == UNKNOWN) {
+			value = world.getLight(pos);
+			light.put(key, value);
+		}
+		return value;
+	}
+
+	@Override
+	public boolean isBlockModifiable(PlayerEntity player, BlockPos pos) {
+		checkTime();
+		if (player != modifyingPlayer) {
+			modifyingPlayer = player;
+			modifiable.clear();
+			unmodifiable.clear();
+		}
+
+		long key = pos.toLong();
+		if (modifiable.contains(key)) {
+			return true;
+		}
+		if (unmodifiable.contains(key)) {
+			return false;
+		}
+
+		boolean canModify = world.isBlockModifiable(player, pos);
+		(canModify ? modifiable : unmodifiable).add(key);
+		return canModify;
+	}
+
+	@Override
+	public void invalidate(BlockPos pos) {
+		// Setting a block updates the shape of its neighbors right away
+		forget(pos.toLong());
+		for (Direction side : Direction.values()) {
+			forget(BlockPos.offset(pos.toLong(), side));
+		}
+		// Light spreads too far to track, but it's cheap to read again
+		light.clear();
+	}
+
+	private void forget(long key) {
+		states.remove(key);
+		tiles.remove(key);
+		noTiles.remove(key);
+	}
+
+	@Override
+	public void invalidateAll() {
+		states.clear();
+		tiles.clear();
+		noTiles.clear();
+		light.clear();
+	}
+
+}
@@ -35,7 +35,7 @@ public void initParams() {
 	@Override
 	public Object execute(SpellContext context) throws SpellRuntimeException {
 		BlockPos pos = SpellHelpers.getBlockPos(this, context, target, false, false);
-		BlockState state = context.caster.world.getBlockState(pos);
+		BlockState state = context.getWorldCache(context.caster.world).getBlockState(pos);
 		return state.getBlockHardness(context.caster.world, pos) * 1.0D;
 	}
 
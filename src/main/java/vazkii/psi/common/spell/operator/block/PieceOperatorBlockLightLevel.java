@@ -35,7 +35,7 @@ public void initParams() {
 	@Override
 	public Object execute(SpellContext context) throws SpellRuntimeException {
 		BlockPos pos = SpellHelpers.getBlockPos(this, context, target, false, false);
-		int j = context.caster.world.getLight(pos);
+		int j = context.getWorldCache(context.caster.world).getLight(pos);
 		return j * 1.0;
 	}
 
@@ -36,7 +36,7 @@ public void initParams() {
 	@Override
 	public Object execute(SpellContext context) throws SpellRuntimeException {
 		BlockPos pos = SpellHelpers.getBlockPos(this, context, position, true, true, false);
-		BlockState state = context.caster.world.getBlockState(pos);
+		BlockState state = context.getWorldCache(context.caster.world).getBlockState(pos);
 		return state.getBlock().getHarvestLevel(state) * 1.0D;
 	}
 
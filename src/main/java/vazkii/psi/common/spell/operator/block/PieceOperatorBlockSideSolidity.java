@@ -40,7 +40,7 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		BlockPos pos = SpellHelpers.getBlockPos(this, context, target, false, false);
 		Direction facing = SpellHelpers.getFacing(this, context, axisParam);
 
-		BlockState state = context.caster.world.getBlockState(pos);
+		BlockState state = context.getWorldCache(context.caster.world).getBlockState(pos);
 		return state.isSolidSide(context.caster.world, pos, facing) ? 1.0D : 0.D;
 	}
 
@@ -20,8 +20,10 @@
 import vazkii.psi.api.spell.param.ParamVector;
 import vazkii.psi.api.spell.piece.PieceOperator;
 import vazkii.psi.api.spell.wrapper.EntityListWrapper;
+import vazkii.psi.common.spell.selector.entity.IEntityStreamConsumer;
+import vazkii.psi.common.spell.selector.entity.PieceSelectorNearby;
 
-public class PieceOperatorClosestToPoint extends PieceOperator {
+public class PieceOperatorClosestToPoint extends PieceOperator implements IEntityStreamConsumer {
 
 	SpellParam<Vector3> position;
 	SpellParam<EntityListWrapper> list;
@@ -38,6 +40,11 @@ public void initParams() {
 
 	@Override
 	public Object execute(SpellContext context) throws SpellRuntimeException {
+		PieceSelectorNearby source = PieceSelectorNearby.getFusedSource(context, this);
+		if (source != null) {
+			return executeStreamed(context, source);
+		}
+
 		EntityListWrapper listVal = this.getParamValue(context, list);
 		Vector3 positionVal = this.getParamValue(context, position);
 
@@ -62,6 +69,33 @@ public static Entity closestToPoint(Vector3 position, Iterable<Entity> list) thr
 		return closestEntity;
 	}
 
+	@Override
+	public SpellParam<EntityListWrapper> getStreamedParam() {
+		return list;
+	}
+
+	@Override
+	public Object executeStreamed(SpellContext context, PieceSelectorNearby source) throws SpellRuntimeException {
+		Vector3 positionVal = this.getParamValue(context, position);
+
+		double[] closest = { Double.MAX_VALUE };
+		Entity[] closestEntity = { null };
+		source.forEachTarget(context, e -> {
+			double dist = MathHelper.pointDistanceSpace(positionVal.x, positionVal.y, positionVal.z, e.getPosX(), e.getPosY(), e.getPosZ());
+			// Ties go to the lowest UUID, which is the one that comes first in the list
+			if (dist < closest[0] || dist == closest[0] && closestEntity[0] != null && EntityListWrapper.compareEntities(e, closestEntity[0]) < 0) {
+				closest[0] = dist;
+				closestEntity[0] = e;
+			}
+		});
+
+		if (closestEntity[0] == null) {
+			throw new SpellRuntimeException(SpellRuntimeException.NULL_TARGET);
+		}
+
+		return closestEntity[0];
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Entity.class;
@@ -8,8 +8,15 @@
  */
 package vazkii.psi.common.spell.operator.entity;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.boss.dragon.EnderDragonEntity;
+import net.minecraft.entity.boss.dragon.EnderDragonPartEntity;
 import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.SectionPos;
 import net.minecraft.util.math.vector.Vector3d;
 import net.minecraft.world.World;
 
@@ -22,12 +29,14 @@
 import vazkii.psi.api.spell.param.ParamNumber;
 import vazkii.psi.api.spell.param.ParamVector;
 import vazkii.psi.api.spell.piece.PieceOperator;
+import vazkii.psi.common.core.handler.EntitySnapshotHandler;
 
-import java.util.Optional;
 import java.util.function.Predicate;
 
 public class PieceOperatorEntityRaycast extends PieceOperator {
 
+	private static final int SECTION_SIZE = 16;
+
 	SpellParam<Vector3> origin;
 	SpellParam<Vector3> ray;
 	SpellParam<Number> max;
@@ -63,37 +72,94 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 	}
 
 	/**
-	 * [VanillaCopy]
-	 * {@link net.minecraft.entity.projectile.ProjectileHelper#rayTraceEntities(World, Entity, Vector3d, Vector3d, AxisAlignedBB, Predicate)}
-	 * (World, Entity, Vector3d, Vector3d, AxisAlignedBB, Predicate, double)}
-	 * Some slight tweaks as we don't need an AABB provided to us, we can just make one.
+	 * Finds the closest entity hit by the ray from positionVector along lookVector, up to maxDistance.
+	 * Based on {@link net.minecraft.entity.projectile.ProjectileHelper#rayTraceEntities(World, Entity, Vector3d, Vector3d, AxisAlignedBB, Predicate)},
+	 * but instead of querying one box spanning the whole ray, the ray is marched one chunk section at a time.
+	 * Only the sections near each step are scanned, each section at most once, and the search stops as soon as
+	 * a hit is closer than anything the remaining steps could contain. Sections are read through
+	 * {@link EntitySnapshotHandler}, so they're shared with the other entity queries of the tick.
 	 */
 	public static Entity rayTraceEntities(World world, Entity caster, Vector3d positionVector, Vector3d lookVector, Predicate<Entity> predicate, double maxDistance) {
 		double distance = maxDistance;
 		Entity entity = null;
 
 		Vector3d reachVector = positionVector.add(lookVector.scale(maxDistance));
-		AxisAlignedBB aabb = new AxisAlignedBB(positionVector.x, positionVector.y, positionVector.z, reachVector.x, reachVector.y, reachVector.z).grow(1f, 1f, 1f);
-		for (Entity entity1 : world.getEntitiesInAABBexcluding(caster, aabb, predicate)) {
-			float collisionBorderSize = entity1.getCollisionBorderSize();
-			AxisAlignedBB axisalignedbb = entity1.getBoundingBox().grow(collisionBorderSize);
-			Optional<Vector3d> optional = axisalignedbb.rayTrace(positionVector, reachVector);
-			if (axisalignedbb.contains(positionVector)) {
-				if (0.0D < distance || distance == 0.0D) {
-					entity = entity1;
-					distance = 0.0D;
-				}
-			} else if (optional.isPresent()) {
-				double distanceTo = positionVector.distanceTo(optional.get());
-				if (distanceTo < distance) {
-					entity = entity1;
-					distance = distanceTo;
+		double length = positionVector.distanceTo(reachVector);
+		int steps = Math.max(1, MathHelper.ceil(length / SECTION_SIZE));
+		// Entities are stored in the section of their position, so their boxes can poke out of it
+		double margin = world.getMaxEntityRadius() + 1;
+
+		LongSet scanned = new LongOpenHashSet();
+		Vector3d stepStart = positionVector;
+		for (int step = 1; step <= steps; step++) {
+			Vector3d stepEnd = step == steps ? reachVector : positionVector.add(reachVector.subtract(positionVector).scale((double) step / steps));
+
+			int minX = MathHelper.floor((Math.min(stepStart.x, stepEnd.x) - margin) / SECTION_SIZE);
+			int minY = MathHelper.floor((Math.min(stepStart.y, stepEnd.y) - margin) / SECTION_SIZE);
+			int minZ = MathHelper.floor((Math.min(stepStart.z, stepEnd.z) - margin) / SECTION_SIZE);
+			int maxX = MathHelper.floor((Math.max(stepStart.x, stepEnd.x) + margin) / SECTION_SIZE);
+			int maxY = MathHelper.floor((Math.max(stepStart.y, stepEnd.y) + margin) / SECTION_SIZE);
+			int maxZ = MathHelper.floor((Math.max(stepStart.z, stepEnd.z) + margin) / SECTION_SIZE);
+
+			for (int cx = minX; cx <= maxX; cx++) {
+				for (int cz = minZ; cz <= maxZ; cz++) {
+					int sectionMinY = MathHelper.clamp(minY, 0, EntitySnapshotHandler.SECTIONS - 1);
+					int sectionMaxY = MathHelper.clamp(maxY, 0, EntitySnapshotHandler.SECTIONS - 1);
+					for (int cy = sectionMinY; cy <= sectionMaxY; cy++) {
+						if (!scanned.add(SectionPos.asLong(cx, cy, cz))) {
+							continue;
+						}
+
+						for (Entity candidate : EntitySnapshotHandler.getSection(world, cx, cy, cz)) {
+							if (candidate.removed) {
+								continue;
+							}
+
+							if (candidate != caster && predicate.test(candidate)) {
+								double candidateDistance = getHitDistance(candidate, positionVector, reachVector);
+								if (candidateDistance >= 0 && (candidateDistance < distance || candidateDistance == 0.0D)) {
+									entity = candidate;
+									distance = candidateDistance;
+								}
+							}
+
+							if (candidate instanceof EnderDragonEntity) {
+								for (EnderDragonPartEntity part : ((EnderDragonEntity) candidate).getDragonParts()) {
+									if (part != caster && predicate.test(part)) {
+										double partDistance = getHitDistance(part, positionVector, reachVector);
+										if (partDistance >= 0 && partDistance < distance) {
+											entity = part;
+											distance = partDistance;
+										}
+									}
+								}
+							}
+						}
+					}
 				}
 			}
+
+			// Anything in later steps is at least this far along the ray
+			if (entity != null && distance <= length * step / steps) {
+				break;
+			}
+			stepStart = stepEnd;
 		}
 		return entity;
 	}
 
+	/**
+	 * @return the distance from positionVector at which the ray enters the entity's hitbox, 0 if it starts inside it,
+	 *         or -1 if the ray misses it.
+	 */
+	private static double getHitDistance(Entity entity, Vector3d positionVector, Vector3d reachVector) {
+		AxisAlignedBB hitbox = entity.getBoundingBox().grow(entity.getCollisionBorderSize());
+		if (hitbox.contains(positionVector)) {
+			return 0.0D;
+		}
+		return hitbox.rayTrace(positionVector, reachVector).map(positionVector::distanceTo).orElse(-1.0D);
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Entity.class;
@@ -10,7 +10,6 @@
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.vector.Vector3d;
 
@@ -22,9 +21,6 @@
 import vazkii.psi.api.spell.piece.PieceOperator;
 import vazkii.psi.common.spell.operator.vector.PieceOperatorVectorRaycast;
 
-import java.util.List;
-import java.util.Optional;
-
 public class PieceOperatorFocusedEntity extends PieceOperator {
 
 	SpellParam<Entity> target;
@@ -55,8 +51,6 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 	}
 
 	public static Entity getEntityLookedAt(Entity e) {
-		Entity foundEntity = null;
-
 		final double finalDistance = 32;
 		double distance = finalDistance;
 		RayTraceResult pos = PieceOperatorVectorRaycast.raycast(e, finalDistance);
@@ -69,40 +63,7 @@ public static Entity getEntityLookedAt(Entity e) {
 			distance = pos.getHitVec().distanceTo(positionVector);
 		}
 
-		Vector3d lookVector = e.getLookVec();
-		Vector3d reachVector = positionVector.add(lookVector.x * finalDistance, lookVector.y * finalDistance, lookVector.z * finalDistance);
-
-		Entity lookedEntity = null;
-		List<Entity> entitiesInBoundingBox = e.getEntityWorld().getEntitiesWithinAABBExcludingEntity(e, e.getBoundingBox().grow(lookVector.x * finalDistance, lookVector.y * finalDistance, lookVector.z * finalDistance).grow(1F, 1F, 1F));
-		double minDistance = distance;
-
-		for (Entity entity : entitiesInBoundingBox) {
-			if (entity.canBeCollidedWith()) {
-				float collisionBorderSize = entity.getCollisionBorderSize();
-				AxisAlignedBB hitbox = entity.getBoundingBox().grow(collisionBorderSize, collisionBorderSize, collisionBorderSize);
-				Optional<Vector3d> interceptPosition = hitbox.rayTrace(positionVector, reachVector);
-
-				if (hitbox.contains(positionVector)) {
-					if (0.0D < minDistance || minDistance == 0.0D) {
-						lookedEntity = entity;
-						minDistance = 0.0D;
-					}
-				} else if (interceptPosition.isPresent()) {
-					double distanceToEntity = positionVector.distanceTo(interceptPosition.get());
-
-					if (distanceToEntity < minDistance || minDistance == 0.0D) {
-						lookedEntity = entity;
-						minDistance = distanceToEntity;
-					}
-				}
-			}
-
-			if (lookedEntity != null && (minDistance < distance || pos == null)) {
-				foundEntity = lookedEntity;
-			}
-		}
-
-		return foundEntity;
+		return PieceOperatorEntityRaycast.rayTraceEntities(e.getEntityWorld(), e, positionVector, e.getLookVec(), Entity::canBeCollidedWith, distance);
 	}
 
 	@Override
@@ -17,8 +17,12 @@
 import vazkii.psi.api.spell.param.ParamEntityListWrapper;
 import vazkii.psi.api.spell.piece.PieceOperator;
 import vazkii.psi.api.spell.wrapper.EntityListWrapper;
+import vazkii.psi.common.spell.selector.entity.IEntityStreamConsumer;
+import vazkii.psi.common.spell.selector.entity.PieceSelectorNearby;
 
-public class PieceOperatorRandomEntity extends PieceOperator {
+import java.util.Random;
+
+public class PieceOperatorRandomEntity extends PieceOperator implements IEntityStreamConsumer {
 
 	SpellParam<EntityListWrapper> list;
 
@@ -33,6 +37,11 @@ public void initParams() {
 
 	@Override
 	public Object execute(SpellContext context) throws SpellRuntimeException {
+		PieceSelectorNearby source = PieceSelectorNearby.getFusedSource(context, this);
+		if (source != null) {
+			return executeStreamed(context, source);
+		}
+
 		EntityListWrapper listVal = this.getParamValue(context, list);
 		if (listVal.size() == 0) {
 			throw new SpellRuntimeException(SpellRuntimeException.NULL_TARGET);
@@ -41,6 +50,32 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return listVal.get(context.caster.getEntityWorld().rand.nextInt(listVal.size()));
 	}
 
+	@Override
+	public SpellParam<EntityListWrapper> getStreamedParam() {
+		return list;
+	}
+
+	/**
+	 * Picks with reservoir sampling, which is just as uniform as picking a random index of the list.
+	 */
+	@Override
+	public Object executeStreamed(SpellContext context, PieceSelectorNearby source) throws SpellRuntimeException {
+		Random rand = context.caster.getEntityWorld().rand;
+		int[] seen = { 0 };
+		Entity[] picked = { null };
+		source.forEachTarget(context, e -> {
+			if (rand.nextInt(++seen[0]) == 0) {
+				picked[0] = e;
+			}
+		});
+
+		if (picked[0] == null) {
+			throw new SpellRuntimeException(SpellRuntimeException.NULL_TARGET);
+		}
+
+		return picked[0];
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Entity.class;
@@ -21,8 +21,12 @@
 import vazkii.psi.api.spell.param.ParamNumber;
 import vazkii.psi.api.spell.piece.PieceOperator;
 import vazkii.psi.api.spell.wrapper.EntityListWrapper;
+import vazkii.psi.common.spell.selector.entity.IEntityStreamConsumer;
+import vazkii.psi.common.spell.selector.entity.PieceSelectorNearby;
 
-public class PieceOperatorListIndex extends PieceOperator {
+import java.util.PriorityQueue;
+
+public class PieceOperatorListIndex extends PieceOperator implements IEntityStreamConsumer {
 
 	SpellParam<EntityListWrapper> list;
 	SpellParam<Number> number;
@@ -45,6 +49,11 @@ public void addToMetadata(SpellMetadata meta) throws SpellCompilationException {
 
 	@Override
 	public Object execute(SpellContext context) throws SpellRuntimeException {
+		PieceSelectorNearby source = PieceSelectorNearby.getFusedSource(context, this);
+		if (source != null) {
+			return executeStreamed(context, source);
+		}
+
 		int num = this.getNonnullParamValue(context, number).intValue();
 		EntityListWrapper listVal = this.getNonnullParamValue(context, list);
 
@@ -55,6 +64,37 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		}
 	}
 
+	@Override
+	public SpellParam<EntityListWrapper> getStreamedParam() {
+		return list;
+	}
+
+	/**
+	 * Keeps the lowest UUIDs up to the index in a heap, instead of sorting every target.
+	 */
+	@Override
+	public Object executeStreamed(SpellContext context, PieceSelectorNearby source) throws SpellRuntimeException {
+		int num = this.getNonnullParamValue(context, number).intValue();
+		if (num < 0) {
+			throw new SpellRuntimeException(SpellRuntimeException.OUT_OF_BOUNDS);
+		}
+
+		PriorityQueue<Entity> lowest = new PriorityQueue<>(Math.min(num, 63) + 1, (l, r) -> EntityListWrapper.compareEntities(r, l));
+		source.forEachTarget(context, e -> {
+			if (lowest.size() <= num) {
+				lowest.add(e);
+			} else if (EntityListWrapper.compareEntities(e, lowest.peek()) < 0) {
+				lowest.poll();
+				lowest.add(e);
+			}
+		});
+
+		if (lowest.size() <= num) {
+			throw new SpellRuntimeException(SpellRuntimeException.OUT_OF_BOUNDS);
+		}
+		return lowest.peek();
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Entity.class;
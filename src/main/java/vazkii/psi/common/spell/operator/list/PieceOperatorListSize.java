@@ -15,8 +15,10 @@
 import vazkii.psi.api.spell.param.ParamEntityListWrapper;
 import vazkii.psi.api.spell.piece.PieceOperator;
 import vazkii.psi.api.spell.wrapper.EntityListWrapper;
+import vazkii.psi.common.spell.selector.entity.IEntityStreamConsumer;
+import vazkii.psi.common.spell.selector.entity.PieceSelectorNearby;
 
-public class PieceOperatorListSize extends PieceOperator {
+public class PieceOperatorListSize extends PieceOperator implements IEntityStreamConsumer {
 
 	SpellParam<EntityListWrapper> list;
 
@@ -31,10 +33,27 @@ public void initParams() {
 
 	@Override
 	public Object execute(SpellContext context) throws SpellRuntimeException {
+		PieceSelectorNearby source = PieceSelectorNearby.getFusedSource(context, this);
+		if (source != null) {
+			return executeStreamed(context, source);
+		}
+
 		EntityListWrapper l1 = this.getNonnullParamValue(context, list);
 		return l1.size();
 	}
 
+	@Override
+	public SpellParam<EntityListWrapper> getStreamedParam() {
+		return list;
+	}
+
+	@Override
+	public Object executeStreamed(SpellContext context, PieceSelectorNearby source) throws SpellRuntimeException {
+		int[] count = { 0 };
+		source.forEachTarget(context, e -> count[0]++);
+		return count[0];
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
@@ -35,6 +35,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return Math.ceil(d);
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
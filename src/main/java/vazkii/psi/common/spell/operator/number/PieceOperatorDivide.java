@@ -45,6 +45,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return d3 != null ? d1 / (d2 * d3.doubleValue()) : d1 / d2;
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
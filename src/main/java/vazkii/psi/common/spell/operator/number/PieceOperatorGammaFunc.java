@@ -46,6 +46,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return Gamma.gamma(d1);
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
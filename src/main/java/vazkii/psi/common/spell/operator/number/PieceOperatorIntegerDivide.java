@@ -48,6 +48,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return Math.floor(d4);
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
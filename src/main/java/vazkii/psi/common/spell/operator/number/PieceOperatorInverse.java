@@ -39,6 +39,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return 1.0 / d;
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
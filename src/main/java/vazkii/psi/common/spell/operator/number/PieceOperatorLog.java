@@ -52,6 +52,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return logNum;
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
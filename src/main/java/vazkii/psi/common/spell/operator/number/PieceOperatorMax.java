@@ -44,6 +44,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return Math.max(d1, Math.max(d2, d3.doubleValue()));
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
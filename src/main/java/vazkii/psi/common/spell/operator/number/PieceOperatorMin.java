@@ -44,6 +44,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return Math.min(d1, Math.min(d2, d3.doubleValue()));
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
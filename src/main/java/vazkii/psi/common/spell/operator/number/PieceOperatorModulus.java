@@ -47,6 +47,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return precise1.remainder(precise2).doubleValue();
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
@@ -44,6 +44,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return d1 * d2 * d3.doubleValue();
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
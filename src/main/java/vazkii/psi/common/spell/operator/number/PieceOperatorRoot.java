@@ -41,6 +41,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
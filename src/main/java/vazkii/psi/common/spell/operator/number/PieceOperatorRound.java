@@ -35,6 +35,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return (double) Math.round(d);
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
@@ -33,6 +33,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return Math.signum(number);
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
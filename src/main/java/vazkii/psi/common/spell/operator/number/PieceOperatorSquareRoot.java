@@ -39,6 +39,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return Math.sqrt(d);
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
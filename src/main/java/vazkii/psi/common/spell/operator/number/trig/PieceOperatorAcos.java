@@ -38,6 +38,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return Math.acos(d);
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
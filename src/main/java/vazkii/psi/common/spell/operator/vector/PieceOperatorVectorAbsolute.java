@@ -36,6 +36,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return new Vector3(Math.abs(vector.x), Math.abs(vector.y), Math.abs(vector.z));
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Vector3.class;
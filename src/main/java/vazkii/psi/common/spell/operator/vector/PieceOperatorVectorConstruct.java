@@ -52,6 +52,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return new Vector3(d1.doubleValue(), d2.doubleValue(), d3.doubleValue());
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Vector3.class;
@@ -39,6 +39,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return v1.copy().crossProduct(v2);
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Vector3.class;
@@ -36,6 +36,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return v1.x;
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
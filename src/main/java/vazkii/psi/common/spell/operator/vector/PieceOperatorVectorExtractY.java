@@ -36,6 +36,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return v1.y;
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Double.class;
@@ -42,6 +42,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return newVector;
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Vector3.class;
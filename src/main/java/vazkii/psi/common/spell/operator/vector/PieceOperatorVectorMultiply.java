@@ -40,6 +40,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return v1.copy().multiply(d);
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Vector3.class;
@@ -39,6 +39,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return targetVal.copy().project(axisVal);
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Vector3.class;
@@ -43,6 +43,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return v.copy().rotate(an, a.copy());
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Vector3.class;
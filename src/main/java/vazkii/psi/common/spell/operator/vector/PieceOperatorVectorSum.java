@@ -47,6 +47,11 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		return r;
 	}
 
+	@Override
+	public boolean isPure() {
+		return true;
+	}
+
 	@Override
 	public Class<?> getEvaluationType() {
 		return Vector3.class;
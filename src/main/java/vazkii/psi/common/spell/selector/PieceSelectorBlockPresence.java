@@ -43,7 +43,7 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		}
 
 		BlockPos pos = positionVal.toBlockPos();
-		BlockState state = context.caster.getEntityWorld().getBlockState(pos);
+		BlockState state = context.getWorldCache(context.caster.getEntityWorld()).getBlockState(pos);
 		Block block = state.getBlock();
 
 		if (state.isAir(context.caster.getEntityWorld(), pos) || state.getMaterial().isReplaceable()) {
@@ -0,0 +1,33 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell.selector.entity;
+
+import vazkii.psi.api.spell.SpellContext;
+import vazkii.psi.api.spell.SpellParam;
+import vazkii.psi.api.spell.SpellRuntimeException;
+import vazkii.psi.api.spell.wrapper.EntityListWrapper;
+
+/**
+ * A piece that only needs a single answer out of an entity list, which it can work out while going through the
+ * targets of a {@link PieceSelectorNearby}. When such a piece is the only reader of a selector, the compiler
+ * fuses the two so the list is never built.
+ */
+public interface IEntityStreamConsumer {
+
+	/**
+	 * @return the param the entity list is read from
+	 */
+	SpellParam<EntityListWrapper> getStreamedParam();
+
+	/**
+	 * Does the same as executing the piece, but reads the targets of the selector instead of its list.
+	 */
+	Object executeStreamed(SpellContext context, PieceSelectorNearby source) throws SpellRuntimeException;
+
+}
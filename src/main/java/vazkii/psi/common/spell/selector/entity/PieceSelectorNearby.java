@@ -11,23 +11,43 @@
 import net.minecraft.entity.Entity;
 import net.minecraft.util.math.AxisAlignedBB;
 
+import vazkii.psi.api.PsiAPI;
 import vazkii.psi.api.internal.Vector3;
+import vazkii.psi.api.spell.CompiledSpell;
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.SpellCompilationException;
 import vazkii.psi.api.spell.SpellContext;
 import vazkii.psi.api.spell.SpellMetadata;
 import vazkii.psi.api.spell.SpellParam;
+import vazkii.psi.api.spell.SpellPiece;
 import vazkii.psi.api.spell.SpellRuntimeException;
 import vazkii.psi.api.spell.param.ParamNumber;
 import vazkii.psi.api.spell.param.ParamVector;
 import vazkii.psi.api.spell.piece.PieceSelector;
 import vazkii.psi.api.spell.wrapper.EntityListWrapper;
+import vazkii.psi.common.core.handler.EntitySnapshotHandler;
 
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 public abstract class PieceSelectorNearby extends PieceSelector {
 
+	/** Whether a selector class still returns exactly what {@link #forEachTarget} goes through */
+	private static final ClassValue<Boolean> DEFAULT_EXECUTE = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("execute", SpellContext.class).getDeclaringClass() == PieceSelectorNearby.class;
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
+
 	SpellParam<Vector3> position;
 	SpellParam<Number> radius;
 
@@ -53,6 +73,35 @@ public void addToMetadata(SpellMetadata meta) throws SpellCompilationException {
 
 	@Override
 	public Object execute(SpellContext context) throws SpellRuntimeException {
+		List<Entity> list = new ArrayList<>();
+		forEachTarget(context, list::add);
+		return EntityListWrapper.make(list);
+	}
+
+	/**
+	 * Hands every entity this selector would return to the action, in no particular order and without building
+	 * the list. Used when the compiler fused this selector into the piece reading it.
+	 *
+	 * @see IEntityStreamConsumer
+	 */
+	public void forEachTarget(SpellContext context, Consumer<Entity> action) throws SpellRuntimeException {
+		CompiledSpell.Action current = context.cspell == null ? null : context.cspell.currentAction;
+		AxisAlignedBB area;
+		if (current != null && current.piece != this) {
+			// Fused into the piece reading it, errors in the selector's own params are still reported at the selector
+			context.cspell.currentAction = context.cspell.new Action(this);
+			area = getArea(context);
+			context.cspell.currentAction = current;
+		} else {
+			area = getArea(context);
+		}
+
+		Predicate<Entity> pred = getTargetPredicate(context);
+
+		EntitySnapshotHandler.forEachEntityWithinAABB(context.caster.getEntityWorld(), area, (Entity e) -> e != null && pred.test(e) && e != context.caster && e != context.focalPoint && context.isInRadius(e), action);
+	}
+
+	private AxisAlignedBB getArea(SpellContext context) throws SpellRuntimeException {
 		Vector3 positionVal = this.getParamValueOrDefault(context, position, Vector3.fromVec3d(context.focalPoint.getPositionVec()));
 		double radiusVal = this.getParamValueOrDefault(context, radius, 2 * SpellContext.MAX_DISTANCE).doubleValue();
 
@@ -64,13 +113,34 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 
 		AxisAlignedBB axis = new AxisAlignedBB(positionVal.x - radiusVal, positionVal.y - radiusVal, positionVal.z - radiusVal, positionVal.x + radiusVal, positionVal.y + radiusVal, positionVal.z + radiusVal);
 		AxisAlignedBB eris = new AxisAlignedBB(positionCenter.x - SpellContext.MAX_DISTANCE, positionCenter.y - SpellContext.MAX_DISTANCE, positionCenter.z - SpellContext.MAX_DISTANCE, positionCenter.x + SpellContext.MAX_DISTANCE, positionCenter.y + SpellContext.MAX_DISTANCE, positionCenter.z + SpellContext.MAX_DISTANCE);
-		AxisAlignedBB area = axis.intersect(eris);
+		return axis.intersect(eris);
+	}
 
-		Predicate<Entity> pred = getTargetPredicate(context);
+	/**
+	 * @return whether the piece is a nearby selector that can be fused into the piece reading it, which is only
+	 *         the case when it returns an entity list and doesn't do anything more than {@link #forEachTarget}
+	 */
+	public static boolean canStream(SpellPiece piece) {
+		return piece instanceof PieceSelectorNearby && piece.getEvaluationType() == EntityListWrapper.class && DEFAULT_EXECUTE.get(piece.getClass());
+	}
 
-		List<Entity> list = context.caster.getEntityWorld().getEntitiesWithinAABB(Entity.class, area, (Entity e) -> e != null && pred.test(e) && e != context.caster && e != context.focalPoint && context.isInRadius(e));
+	/**
+	 * @return the selector the compiler fused into the given piece, or null if the piece reads its list as usual
+	 */
+	@Nullable
+	public static PieceSelectorNearby getFusedSource(SpellContext context, SpellPiece consumer) {
+		if (context.cspell == null) {
+			return null;
+		}
 
-		return EntityListWrapper.make(list);
+		SpellPiece source = context.cspell.fusedSelectors.get(consumer);
+		if (!(source instanceof PieceSelectorNearby)) {
+			return null;
+		}
+
+		// The selector never runs by itself, but still counts as executed for unlocking its group
+		PsiAPI.internalHandler.getDataForPlayer(context.caster).markPieceExecuted(source);
+		return (PieceSelectorNearby) source;
 	}
 
 	public abstract Predicate<Entity> getTargetPredicate(SpellContext context);
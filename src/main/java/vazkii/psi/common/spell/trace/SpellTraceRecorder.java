@@ -0,0 +1,206 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell.trace;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+
+import vazkii.psi.api.internal.Vector3;
+import vazkii.psi.api.spell.CompiledSpell;
+import vazkii.psi.api.spell.ISpellTracer;
+import vazkii.psi.api.spell.SpellContext;
+import vazkii.psi.api.spell.SpellPiece;
+import vazkii.psi.common.Psi;
+
+import javax.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes every executed spell to a trace file, toggled with /psi trace. Each spell's grid is written
+ * once, then every execution with what it was cast from and the value each piece returned.
+ * See {@link SpellTraceReplayer} for the other end.
+ */
+public final class SpellTraceRecorder implements ISpellTracer {
+
+	public static final String HEADER = "psi-trace";
+	public static final int VERSION = 1;
+
+	public static final byte RECORD_SPELL = 1;
+	public static final byte RECORD_EXECUTION = 2;
+
+	@Nullable
+	private static SpellTraceRecorder active;
+
+	private final Path file;
+	@Nullable
+	private final UUID player;
+	private final DataOutputStream out;
+
+	private final Map<CompiledSpell, Integer> spellIds = new WeakHashMap<>();
+	private final Map<SpellContext, Execution> executions = new IdentityHashMap<>();
+	private int nextSpellId;
+	private int written;
+
+	private SpellTraceRecorder(Path file, @Nullable UUID player) throws IOException {
+		this.file = file;
+		this.player = player;
+		this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))));
+		out.writeUTF(HEADER);
+		out.writeInt(VERSION);
+	}
+
+	@Nullable
+	public static SpellTraceRecorder getActive() {
+		return active;
+	}
+
+	/**
+	 * Starts tracing into the given file.
+	 *
+	 * @param player only trace spells cast by this player, or everyone's if null
+	 * @return false if a trace was already running
+	 */
+	public static boolean start(Path file, @Nullable UUID player) throws IOException {
+		if (active != null) {
+			return false;
+		}
+		Files.createDirectories(file.getParent());
+		active = new SpellTraceRecorder(file, player);
+		return true;
+	}
+
+	/**
+	 * @return the finished trace, or null if none was running
+	 */
+	@Nullable
+	public static SpellTraceRecorder stop() {
+		SpellTraceRecorder recorder = active;
+		if (recorder != null) {
+			active = null;
+			recorder.close();
+		}
+		return recorder;
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public int getWritten() {
+		return written;
+	}
+
+	@Override
+	public void begin(CompiledSpell spell, SpellContext context) {
+		if (context.caster == null || player != null && !player.equals(context.caster.getUniqueID())) {
+			return;
+		}
+
+		try {
+			Execution execution = new Execution();
+			DataOutputStream data = execution.data;
+			data.writeInt(getSpellId(spell));
+			data.writeLong(context.caster.world.getGameTime());
+			data.writeUTF(context.caster.getGameProfile().getName());
+			SpellTraceValues.writeVector(data, Vector3.fromEntity(context.caster));
+			SpellTraceValues.writeVector(data, new Vector3(context.caster.getLookVec()));
+			SpellTraceValues.writeVector(data, context.focalPoint == null ? Vector3.zero : Vector3.fromEntity(context.focalPoint));
+			data.writeInt(context.loopcastIndex);
+			data.writeBoolean(context.actions.size() < spell.actions.size());
+			executions.put(context, execution);
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	@Override
+	public void piece(SpellContext context, SpellPiece piece, long nanos) {
+		Execution execution = executions.get(context);
+		if (execution == null) {
+			return;
+		}
+
+		try {
+			DataOutputStream data = execution.data;
+			data.writeBoolean(true);
+			data.writeByte(piece.x);
+			data.writeByte(piece.y);
+			data.writeLong(nanos);
+			SpellTraceValues.write(data, context.evaluatedObjects[piece.x][piece.y]);
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	@Override
+	public void end(SpellContext context) {
+		Execution execution = executions.remove(context);
+		if (execution == null) {
+			return;
+		}
+
+		try {
+			execution.data.writeBoolean(false);
+			out.writeByte(RECORD_EXECUTION);
+			out.writeInt(execution.bytes.size());
+			execution.bytes.writeTo(out);
+			written++;
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	private int getSpellId(CompiledSpell spell) throws IOException {
+		Integer id = spellIds.get(spell);
+		if (id == null) {
+			id = nextSpellId++;
+			spellIds.put(spell, id);
+
+			CompoundNBT cmp = new CompoundNBT();
+			spell.sourceSpell.writeToNBT(cmp);
+			out.writeByte(RECORD_SPELL);
+			out.writeInt(id);
+			CompressedStreamTools.write(cmp, out);
+		}
+		return id;
+	}
+
+	private void fail(IOException e) {
+		Psi.logger.error("Failed to write spell trace, stopping it", e);
+		if (active == this) {
+			stop();
+		}
+	}
+
+	private void close() {
+		executions.clear();
+		try {
+			out.close();
+		} catch (IOException e) {
+			Psi.logger.error("Failed to close spell trace", e);
+		}
+	}
+
+	private static class Execution {
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private final DataOutputStream data = new DataOutputStream(bytes);
+	}
+
+}
@@ -0,0 +1,250 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell.trace;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.util.Util;
+
+import vazkii.psi.api.internal.Vector3;
+import vazkii.psi.api.spell.CompiledSpell;
+import vazkii.psi.api.spell.Spell;
+import vazkii.psi.api.spell.SpellContext;
+import vazkii.psi.api.spell.SpellPiece;
+import vazkii.psi.api.spell.SpellRuntimeException;
+import vazkii.psi.api.spell.piece.PieceOperator;
+import vazkii.psi.api.spell.wrapper.EntityListWrapper;
+import vazkii.psi.common.spell.SpellCompiler;
+
+import javax.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Replays a trace written by {@link SpellTraceRecorder} without a world. Pure operators are executed
+ * again and checked against what they returned when recorded, every other piece gets its recorded value,
+ * so a change to an operator or the compiler can be timed and checked against real spells.
+ */
+public final class SpellTraceReplayer {
+
+	private final Map<Integer, SpellStats> spells = new HashMap<>();
+	/** Contexts of spells that were delayed, by caster and spell id */
+	private final Map<String, SpellContext> delayed = new HashMap<>();
+	private int executions;
+
+	private SpellTraceReplayer() {}
+
+	/**
+	 * Replays the trace and writes the report next to it.
+	 *
+	 * @return the report file
+	 */
+	public static Path replay(Path trace) throws IOException {
+		SpellTraceReplayer replayer = new SpellTraceReplayer();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(trace))))) {
+			if (!SpellTraceRecorder.HEADER.equals(in.readUTF()) || in.readInt() != SpellTraceRecorder.VERSION) {
+				throw new IOException("Not a spell trace, or written by a different version");
+			}
+			replayer.read(in);
+		}
+
+		Path report = trace.resolveSibling(trace.getFileName() + ".replay.txt");
+		replayer.write(report);
+		return report;
+	}
+
+	/**
+	 * Replays the trace on a worker thread, so the server doesn't stall while a long trace is read.
+	 *
+	 * @return the report file, once written
+	 */
+	public static CompletableFuture<Path> replayInBackground(Path trace) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return replay(trace);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, Util.getServerExecutor());
+	}
+
+	private void read(DataInputStream in) throws IOException {
+		while (true) {
+			int record = in.read();
+			if (record == -1) {
+				return;
+			}
+
+			if (record == SpellTraceRecorder.RECORD_SPELL) {
+				int id = in.readInt();
+				Spell spell = Spell.createFromNBT(CompressedStreamTools.read(in));
+				if (spell == null) {
+					throw new IOException("Invalid spell " + id);
+				}
+				spells.put(id, new SpellStats(spell));
+			} else if (record == SpellTraceRecorder.RECORD_EXECUTION) {
+				byte[] bytes = new byte[in.readInt()];
+				in.readFully(bytes);
+				try {
+					replayExecution(new DataInputStream(new ByteArrayInputStream(bytes)));
+				} catch (EOFException e) {
+					// The server stopped halfway through the spell, nothing to compare
+				}
+			} else {
+				throw new IOException("Unknown record type " + record);
+			}
+		}
+	}
+
+	private void replayExecution(DataInputStream in) throws IOException {
+		int spellId = in.readInt();
+		in.readLong();
+		String caster = in.readUTF();
+		SpellTraceValues.readVector(in);
+		SpellTraceValues.readVector(in);
+		SpellTraceValues.readVector(in);
+		in.readInt();
+		boolean resumed = in.readBoolean();
+
+		SpellStats stats = spells.get(spellId);
+		if (stats == null) {
+			throw new IOException("Execution of unknown spell " + spellId);
+		}
+		executions++;
+		stats.executions++;
+
+		if (stats.compiled == null) {
+			stats.errors++;
+			return;
+		}
+
+		String key = caster + "/" + spellId;
+		SpellContext context = resumed ? delayed.remove(key) : null;
+		if (context == null) {
+			context = stats.newContext();
+		}
+
+		while (in.readBoolean()) {
+			int x = in.readByte();
+			int y = in.readByte();
+			long nanos = in.readLong();
+			Object recorded = SpellTraceValues.read(in);
+			stats.recordedNanos += nanos;
+
+			SpellPiece piece = stats.compiled.sourceSpell.grid.gridData[x][y];
+			if (piece instanceof PieceOperator && ((PieceOperator) piece).isPure()) {
+				stats.pureRecordedNanos += nanos;
+				stats.pureExecutions++;
+
+				Object replayed;
+				long start = System.nanoTime();
+				try {
+					replayed = piece.execute(context);
+				} catch (SpellRuntimeException e) {
+					replayed = null;
+				}
+				stats.pureReplayedNanos += System.nanoTime() - start;
+
+				if (!matches(recorded, replayed)) {
+					stats.mismatches++;
+				}
+				context.evaluatedObjects[x][y] = replayed;
+			} else {
+				context.evaluatedObjects[x][y] = toContextValue(recorded);
+			}
+		}
+
+		delayed.put(key, context);
+	}
+
+	private static boolean matches(@Nullable Object recorded, @Nullable Object replayed) {
+		if (recorded instanceof Double && replayed instanceof Number) {
+			return Double.compare((Double) recorded, ((Number) replayed).doubleValue()) == 0;
+		}
+		return Objects.equals(recorded, replayed);
+	}
+
+	/**
+	 * Traced entities can't be given to pieces, they're replaced by what a missing target would be.
+	 */
+	@Nullable
+	private static Object toContextValue(@Nullable Object recorded) {
+		if (recorded instanceof SpellTraceValues.TracedEntity || recorded instanceof String) {
+			return null;
+		}
+		if (recorded instanceof SpellTraceValues.TracedEntity[]) {
+			return EntityListWrapper.EMPTY;
+		}
+		return recorded;
+	}
+
+	private void write(Path file) throws IOException {
+		List<SpellStats> sorted = new ArrayList<>(spells.values());
+		sorted.sort(Comparator.comparingLong((SpellStats s) -> s.recordedNanos).reversed());
+
+		try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+			writer.printf("Psi spell trace replay, %d spells, %d executions%n", spells.size(), executions);
+			writer.println("Pure operators are executed again, everything else uses the recorded values");
+			writer.println();
+			writer.printf("%-32s %10s %14s %12s %16s %16s %10s %8s%n", "spell", "runs", "recorded ms", "pure runs",
+					"pure recorded ms", "pure replayed ms", "mismatch", "errors");
+			for (SpellStats s : sorted) {
+				writer.printf("%-32s %10d %14.3f %12d %16.3f %16.3f %10d %8d%n", s.spell.name, s.executions,
+						s.recordedNanos / 1_000_000.0, s.pureExecutions, s.pureRecordedNanos / 1_000_000.0,
+						s.pureReplayedNanos / 1_000_000.0, s.mismatches, s.errors);
+			}
+		}
+	}
+
+	private static class SpellStats {
+		private final Spell spell;
+		@Nullable
+		private final CompiledSpell compiled;
+
+		private int executions;
+		private long recordedNanos;
+		private int pureExecutions;
+		private long pureRecordedNanos;
+		private long pureReplayedNanos;
+		private int mismatches;
+		private int errors;
+
+		private SpellStats(Spell spell) {
+			this.spell = spell;
+			this.compiled = new SpellCompiler().compile(spell).left().orElse(null);
+		}
+
+		private SpellContext newContext() {
+			SpellContext context = new SpellContext().setCompiledSpell(compiled);
+			for (Map.Entry<SpellPiece, Object> literal : compiled.literals.entrySet()) {
+				SpellPiece piece = literal.getKey();
+				Object value = literal.getValue();
+				context.evaluatedObjects[piece.x][piece.y] = value instanceof Vector3 ? ((Vector3) value).copy() : value;
+			}
+			return context;
+		}
+	}
+
+}
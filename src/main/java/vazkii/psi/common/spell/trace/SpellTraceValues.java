@@ -0,0 +1,129 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.common.spell.trace;
+
+import net.minecraft.entity.Entity;
+
+import vazkii.psi.api.internal.Vector3;
+import vazkii.psi.api.spell.wrapper.EntityListWrapper;
+
+import javax.annotation.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes and reads the values of pieces in a spell trace. Numbers and vectors are kept as they are,
+ * entities only as their id and position since they can't exist outside of a world.
+ */
+public final class SpellTraceValues {
+
+	private static final byte NULL = 0;
+	private static final byte NUMBER = 1;
+	private static final byte VECTOR = 2;
+	private static final byte ENTITY = 3;
+	private static final byte ENTITY_LIST = 4;
+	private static final byte OTHER = 5;
+
+	private SpellTraceValues() {}
+
+	public static void write(DataOutput out, @Nullable Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		} else if (value instanceof Number) {
+			out.writeByte(NUMBER);
+			out.writeDouble(((Number) value).doubleValue());
+		} else if (value instanceof Vector3) {
+			out.writeByte(VECTOR);
+			writeVector(out, (Vector3) value);
+		} else if (value instanceof Entity) {
+			out.writeByte(ENTITY);
+			writeEntity(out, (Entity) value);
+		} else if (value instanceof EntityListWrapper) {
+			EntityListWrapper list = (EntityListWrapper) value;
+			out.writeByte(ENTITY_LIST);
+			out.writeInt(list.size());
+			for (Entity entity : list) {
+				writeEntity(out, entity);
+			}
+		} else {
+			out.writeByte(OTHER);
+			out.writeUTF(value.getClass().getName());
+			out.writeUTF(String.valueOf(value));
+		}
+	}
+
+	/**
+	 * Reads a value written by {@link #write(DataOutput, Object)}. Entities come back as {@link TracedEntity},
+	 * entity lists as arrays of them and anything else as its description.
+	 */
+	@Nullable
+	public static Object read(DataInput in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case NULL:
+			return null;
+		case NUMBER:
+			return in.readDouble();
+		case VECTOR:
+			return readVector(in);
+		case ENTITY:
+			return readEntity(in);
+		case ENTITY_LIST:
+			TracedEntity[] list = new TracedEntity[in.readInt()];
+			for (int i = 0; i < list.length; i++) {
+				list[i] = readEntity(in);
+			}
+			return list;
+		case OTHER:
+			return in.readUTF() + ": " + in.readUTF();
+		default:
+			throw new IOException("Unknown value type " + type);
+		}
+	}
+
+	public static void writeVector(DataOutput out, Vector3 vec) throws IOException {
+		out.writeDouble(vec.x);
+		out.writeDouble(vec.y);
+		out.writeDouble(vec.z);
+	}
+
+	public static Vector3 readVector(DataInput in) throws IOException {
+		return new Vector3(in.readDouble(), in.readDouble(), in.readDouble());
+	}
+
+	private static void writeEntity(DataOutput out, Entity entity) throws IOException {
+		out.writeInt(entity.getEntityId());
+		writeVector(out, Vector3.fromEntity(entity));
+	}
+
+	private static TracedEntity readEntity(DataInput in) throws IOException {
+		return new TracedEntity(in.readInt(), readVector(in));
+	}
+
+	/**
+	 * An entity as it was when the trace was recorded.
+	 */
+	public static class TracedEntity {
+		public final int id;
+		public final Vector3 position;
+
+		public TracedEntity(int id, Vector3 position) {
+			this.id = id;
+			this.position = position;
+		}
+
+		@Override
+		public String toString() {
+			return "entity " + id + " at " + position;
+		}
+	}
+
+}
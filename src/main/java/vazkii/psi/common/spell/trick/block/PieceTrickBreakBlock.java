@@ -13,6 +13,7 @@
 import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.enchantment.Enchantments;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.fluid.FluidState;
 import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
@@ -20,6 +21,7 @@
 import net.minecraft.world.World;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.extensions.IForgeBlock;
 import net.minecraftforge.common.extensions.IForgeBlockState;
 import net.minecraftforge.event.world.BlockEvent.BreakEvent;
 import net.minecraftforge.fluids.IFluidBlock;
@@ -27,6 +29,7 @@
 import vazkii.psi.api.PsiAPI;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.EnumSpellStat;
+import vazkii.psi.api.spell.IBlockMutationBatch;
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.SpellCompilationException;
 import vazkii.psi.api.spell.SpellContext;
@@ -36,10 +39,24 @@
 import vazkii.psi.api.spell.param.ParamVector;
 import vazkii.psi.api.spell.piece.PieceTrick;
 
+import javax.annotation.Nullable;
+
 public class PieceTrickBreakBlock extends PieceTrick {
 
 	public static ThreadLocal<Boolean> doingHarvestCheck = ThreadLocal.withInitial(() -> false);
 
+	/** Whether a block class keeps the default {@link IForgeBlock#removedByPlayer}, so its removal can be batched */
+	private static final ClassValue<Boolean> DEFAULT_REMOVAL = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("removedByPlayer", BlockState.class, World.class, BlockPos.class, PlayerEntity.class, boolean.class, FluidState.class).getDeclaringClass() == IForgeBlock.class;
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
+
 	SpellParam<Vector3> position;
 
 	public PieceTrickBreakBlock(Spell spell) {
@@ -86,6 +103,7 @@ public static void removeBlockWithDrops(SpellContext context, PlayerEntity playe
 			tool = PsiAPI.getPlayerCAD(player);
 		}
 
+		IBlockMutationBatch batch = context == null ? null : context.getBlockBatch(world);
 		BlockState state = world.getBlockState(pos);
 		Block block = state.getBlock();
 		if (!block.isAir(state, world, pos) && !(block instanceof IFluidBlock) && state.getBlockHardness(world, pos) != -1) {
@@ -99,24 +117,44 @@ public static void removeBlockWithDrops(SpellContext context, PlayerEntity playe
 				if (!player.abilities.isCreativeMode) {
 					TileEntity tile = world.getTileEntity(pos);
 
-					if (block.removedByPlayer(state, world, pos, player, true, world.getFluidState(pos))) {
+					if (removedByPlayer(batch, state, world, pos, player)) {
 						block.onPlayerDestroy(world, pos, state);
 						block.harvestBlock(world, player, pos, state, tile, tool);
 						if (world instanceof ServerWorld) {
 							block.dropXpOnBlockBreak((ServerWorld) world, pos, event.getExpToDrop());
 						}
 					}
+				} else if (batch != null) {
+					batch.removeBlock(pos, false);
 				} else {
 					world.removeBlock(pos, false);
 				}
 			}
 
 			if (particles) {
-				world.playEvent(2001, pos, Block.getStateId(state));
+				if (batch != null) {
+					batch.playBreakEffect(pos, state);
+				} else {
+					world.playEvent(2001, pos, Block.getStateId(state));
+				}
 			}
 		}
 	}
 
+	/**
+	 * Same as {@link IForgeBlock#removedByPlayer}, but sets the block through the batch when there is one, so the
+	 * neighbor updates are deferred with the rest of the trick. Blocks overriding the removal keep their own.
+	 */
+	private static boolean removedByPlayer(@Nullable IBlockMutationBatch batch, BlockState state, World world, BlockPos pos, PlayerEntity player) {
+		FluidState fluid = world.getFluidState(pos);
+		if (batch == null || !DEFAULT_REMOVAL.get(state.getBlock().getClass())) {
+			return state.getBlock().removedByPlayer(state, world, pos, player, true, fluid);
+		}
+
+		state.getBlock().onBlockHarvested(world, pos, state, player);
+		return batch.setBlockState(pos, fluid.getBlockState(), world.isRemote ? 11 : 3);
+	}
+
 	/**
 	 * Based on {@link BreakEvent#BreakEvent(World, BlockPos, BlockState, PlayerEntity)}.
 	 * Allows a tool that isn't your mainhand tool to harvest the blocks.
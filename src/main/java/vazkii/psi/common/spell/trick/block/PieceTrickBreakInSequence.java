@@ -71,6 +71,7 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 				throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
 			}
 			PieceTrickBreakBlock.removeBlockWithDrops(context, context.caster, context.focalPoint.getEntityWorld(), tool, blockPos, true);
+			context.getWorldCache(context.focalPoint.getEntityWorld()).invalidate(blockPos);
 
 		}
 
@@ -70,22 +70,23 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		}
 
 		World world = context.caster.world;
+		IWorldReadCache cache = context.getWorldCache(world);
 		Vector3 targetNorm = targetVal.copy().normalize();
 		for (BlockPos blockPos : MathHelper.getBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt)) {
 			if (!context.isInRadius(Vector3.fromBlockPos(blockPos))) {
 				throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
 			}
 			BlockPos posDown = blockPos.down();
-			BlockState state = world.getBlockState(blockPos);
-			BlockState stateDown = world.getBlockState(posDown);
+			BlockState state = cache.getBlockState(blockPos);
+			BlockState stateDown = cache.getBlockState(posDown);
 
-			if (!world.isBlockModifiable(context.caster, blockPos)) {
+			if (!cache.isBlockModifiable(context.caster, blockPos)) {
 				return null;
 			}
 
 			if (stateDown.isAir(world, posDown) && state.getBlockHardness(world, blockPos) != -1 &&
 					PieceTrickBreakBlock.canHarvestBlock(state, context.caster, world, blockPos, tool) &&
-					world.getTileEntity(blockPos) == null) {
+					!cache.hasTileEntity(blockPos)) {
 
 				BlockEvent.BreakEvent event = PieceTrickBreakBlock.createBreakEvent(state, context.caster, world, blockPos, tool);
 				MinecraftForge.EVENT_BUS.post(event);
@@ -11,7 +11,6 @@
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
-import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
@@ -31,7 +30,7 @@
 import vazkii.psi.api.spell.piece.PieceTrick;
 import vazkii.psi.common.block.BlockConjured;
 import vazkii.psi.common.block.base.ModBlocks;
-import vazkii.psi.common.block.tile.TileConjured;
+import vazkii.psi.common.core.handler.ConjuredBlockHandler;
 
 import javax.annotation.Nullable;
 
@@ -87,34 +86,26 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 	}
 
 	public static void conjure(SpellContext context, @Nullable Number timeVal, BlockPos pos, World world, BlockState state) {
-		if (world.getBlockState(pos).getBlock() != state.getBlock()) {
-			if (conjure(world, pos, context.caster, state)) {
-				if (timeVal != null && timeVal.intValue() > 0) {
-					int val = timeVal.intValue();
-					world.getPendingBlockTicks().scheduleTick(pos, state.getBlock(), val);
-				}
-
-				TileEntity tile = world.getTileEntity(pos);
-
+		if (context.getWorldCache(world).getBlockState(pos).getBlock() != state.getBlock()) {
+			if (canConjure(world, pos, context.caster) && context.getBlockBatch(world).setBlockState(pos, state)) {
 				ItemStack cad = PsiAPI.getPlayerCAD(context.caster);
-				if (tile instanceof TileConjured && !cad.isEmpty()) {
-					((TileConjured) tile).colorizer = ((ICAD) cad.getItem()).getComponentInSlot(cad, EnumCADComponent.DYE);
-				}
-
+				ItemStack colorizer = cad.isEmpty() ? ItemStack.EMPTY : ((ICAD) cad.getItem()).getComponentInSlot(cad, EnumCADComponent.DYE);
+				ConjuredBlockHandler.conjured(world, pos, colorizer, timeVal == null ? 0 : timeVal.intValue());
 			}
 		}
 	}
 
 	public static boolean conjure(World world, BlockPos pos, PlayerEntity player, BlockState state) {
+		return canConjure(world, pos, player) && world.setBlockState(pos, state);
+	}
+
+	public static boolean canConjure(World world, BlockPos pos, PlayerEntity player) {
 		if (!world.isBlockLoaded(pos) || !world.isBlockModifiable(player, pos)) {
 			return false;
 		}
 
 		BlockState inWorld = world.getBlockState(pos);
-		if (inWorld.isAir(world, pos) || inWorld.getMaterial().isReplaceable()) {
-			return world.setBlockState(pos, state);
-		}
-		return false;
+		return inWorld.isAir(world, pos) || inWorld.getMaterial().isReplaceable();
 	}
 
 	public BlockState messWithState(BlockState state) {
@@ -78,7 +78,7 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 				throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
 			}
 
-			if (!world.isBlockModifiable(context.caster, blockPos)) {
+			if (!context.getWorldCache(world).isBlockModifiable(context.caster, blockPos)) {
 				continue;
 			}
 
@@ -10,7 +10,6 @@
 
 import com.google.common.collect.Maps;
 
-import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.material.PushReaction;
 import net.minecraft.util.math.BlockPos;
@@ -21,6 +20,8 @@
 import vazkii.psi.api.internal.MathHelper;
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.EnumSpellStat;
+import vazkii.psi.api.spell.IBlockMutationBatch;
+import vazkii.psi.api.spell.IWorldReadCache;
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.SpellCompilationException;
 import vazkii.psi.api.spell.SpellContext;
@@ -76,25 +77,26 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		Vector3 directNorm = directionVal.copy().normalize();
 		Vector3 targetNorm = targetVal.copy().normalize();
 		LinkedHashSet<BlockPos> positions = MathHelper.getBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksVal)).toVec3D(), maxBlocksVal);
+		World world = context.caster.world;
+		IWorldReadCache cache = context.getWorldCache(world);
 		for (BlockPos blockPos : positions) {
-			World world = context.caster.world;
-			BlockState state = world.getBlockState(blockPos);
+			BlockState state = cache.getBlockState(blockPos);
 
-			if (world.getTileEntity(blockPos) != null ||
+			if (cache.hasTileEntity(blockPos) ||
 					state.getPushReaction() != PushReaction.NORMAL ||
 					state.getPlayerRelativeBlockHardness(context.caster, world, blockPos) <= 0 ||
 					!PieceTrickBreakBlock.canHarvestBlock(state, context.caster, world, blockPos, context.tool) ||
 					!SpellHelpers.isBlockPosInRadius(context, blockPos) ||
-					!world.isBlockModifiable(context.caster, blockPos) ||
-					world.isAirBlock(blockPos)) {
+					!cache.isBlockModifiable(context.caster, blockPos) ||
+					state.isAir(world, blockPos)) {
 				continue;
 			}
 
 			BlockPos pushToPos = blockPos.add(directNorm.x, directNorm.y, directNorm.z);
 			BlockPos nextPos = blockPos.add(targetNorm.x, targetNorm.y, targetNorm.z);
-			BlockState pushToState = world.getBlockState(pushToPos);
+			BlockState pushToState = cache.getBlockState(pushToPos);
 			BlockPos nextPosPushPos = nextPos.add(directNorm.x, directNorm.y, directNorm.z);
-			if (!world.isBlockModifiable(context.caster, pushToPos)) {
+			if (!cache.isBlockModifiable(context.caster, pushToPos)) {
 				continue;
 			}
 
@@ -105,8 +107,8 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 			}
 
 			if ((nextPos.equals(pushToPos) &&
-					((positions.contains(nextPos) && (world.isAirBlock(nextPosPushPos) || world.getBlockState(nextPosPushPos).getMaterial().isReplaceable() || positions.contains(nextPosPushPos))))) ||
-					(world.isAirBlock(pushToPos) || pushToState.getMaterial().isReplaceable()) &&
+					((positions.contains(nextPos) && (cache.getBlockState(nextPosPushPos).isAir(world, nextPosPushPos) || cache.getBlockState(nextPosPushPos).getMaterial().isReplaceable() || positions.contains(nextPosPushPos))))) ||
+					(pushToState.isAir(world, pushToPos) || pushToState.getMaterial().isReplaceable()) &&
 							!(pushToPos.getY() < 0 || pushToPos.getY() > 256)) {
 				toRemove.put(blockPos, state);
 				toSet.put(pushToPos, state);
@@ -115,13 +117,14 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 			}
 		}
 
+		IBlockMutationBatch batch = context.getBlockBatch(context.caster.world);
 		for (Map.Entry<BlockPos, BlockState> pairtoRemove : toRemove.entrySet()) {
-			context.caster.world.removeBlock(pairtoRemove.getKey(), true);
-			context.caster.world.playEvent(2001, pairtoRemove.getKey(), Block.getStateId(pairtoRemove.getValue()));
+			batch.removeBlock(pairtoRemove.getKey(), true);
+			batch.playBreakEffect(pairtoRemove.getKey(), pairtoRemove.getValue());
 		}
 
 		for (Map.Entry<BlockPos, BlockState> pairToSet : toSet.entrySet()) {
-			context.caster.world.setBlockState(pairToSet.getKey(), pairToSet.getValue());
+			batch.setBlockState(pairToSet.getKey(), pairToSet.getValue());
 		}
 
 		return null;
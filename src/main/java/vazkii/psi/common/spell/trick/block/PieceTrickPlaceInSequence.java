@@ -82,6 +82,7 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 			}
 
 			PieceTrickPlaceBlock.placeBlock(context.caster, context.focalPoint.getEntityWorld(), blockPos, context.getTargetSlot(), false, direction, horizontalFacing);
+			context.getWorldCache(context.focalPoint.getEntityWorld()).invalidate(blockPos);
 		}
 
 		return null;
@@ -70,17 +70,18 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 			tool = PsiAPI.getPlayerCAD(context.caster);
 		}
 
+		IWorldReadCache cache = context.getWorldCache(context.focalPoint.getEntityWorld());
 		Vector3 targetNorm = targetVal.copy().normalize();
 		for (BlockPos blockPos : MathHelper.getBlocksAlongRay(positionVal.toVec3D(), positionVal.copy().add(targetNorm.copy().multiply(maxBlocksInt)).toVec3D(), maxBlocksInt)) {
 			if (!context.isInRadius(Vector3.fromBlockPos(blockPos))) {
 				throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
 			}
 
-			if (!context.focalPoint.getEntityWorld().isBlockModifiable(context.caster, blockPos)) {
+			if (!cache.isBlockModifiable(context.caster, blockPos)) {
 				return null;
 			}
 
-			BlockState state = context.focalPoint.getEntityWorld().getBlockState(blockPos);
+			BlockState state = cache.getBlockState(blockPos);
 			Block block = state.getBlock();
 			ItemStack stack = new ItemStack(block);
 			BlockEvent.BreakEvent event = PieceTrickBreakBlock.createBreakEvent(state, context.caster, context.caster.world, blockPos, tool);
@@ -93,8 +94,9 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 				Item item = result.getItem();
 				Block block1 = Block.getBlockFromItem(item);
 				if (block1 != Blocks.AIR) {
-					context.focalPoint.getEntityWorld().setBlockState(blockPos, block1.getDefaultState());
-					context.focalPoint.getEntityWorld().playEvent(2001, blockPos, Block.getStateId(block1.getDefaultState()));
+					IBlockMutationBatch batch = context.getBlockBatch(context.focalPoint.getEntityWorld());
+					batch.setBlockState(blockPos, block1.getDefaultState());
+					batch.playBreakEffect(blockPos, block1.getDefaultState());
 				}
 			}
 
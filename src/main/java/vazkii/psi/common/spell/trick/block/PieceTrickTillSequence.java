@@ -63,6 +63,7 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 
 			if (SpellHelpers.isBlockPosInRadius(context, blockPos)) {
 				PieceTrickTill.tillBlock(context.caster, context.caster.world, blockPos);
+				context.getWorldCache(context.caster.world).invalidate(blockPos);
 			}
 
 		}
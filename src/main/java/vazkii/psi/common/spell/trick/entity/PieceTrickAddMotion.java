@@ -22,6 +22,7 @@
 import vazkii.psi.api.spell.param.ParamNumber;
 import vazkii.psi.api.spell.param.ParamVector;
 import vazkii.psi.api.spell.piece.PieceTrick;
+import vazkii.psi.api.spell.wrapper.EntityListWrapper;
 import vazkii.psi.common.core.handler.AdditiveMotionHandler;
 
 public class PieceTrickAddMotion extends PieceTrick {
@@ -78,8 +79,28 @@ public static void addMotion(SpellContext context, Entity e, Vector3 dir, double
 			throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
 		}
 
-		dir = dir.copy().normalize().multiply(MULTIPLIER * speed);
+		applyMotion(e, getMotion(dir, speed));
+	}
+
+	/**
+	 * Adds the same motion to all the given entities, checking them all before moving any.
+	 */
+	public static void addMotion(SpellContext context, EntityListWrapper targets, Vector3 dir, double speed) throws SpellRuntimeException {
+		context.verifyEntities(targets);
+		Vector3 motion = getMotion(dir, speed);
+		for (Entity e : targets) {
+			applyMotion(e, motion);
+		}
+	}
 
+	public static Vector3 getMotion(Vector3 dir, double speed) {
+		return dir.copy().normalize().multiply(MULTIPLIER * speed);
+	}
+
+	/**
+	 * Adds motion that has already been scaled with {@link #getMotion(Vector3, double)}, without checking the entity.
+	 */
+	public static void applyMotion(Entity e, Vector3 dir) {
 		if (Math.abs(dir.y) > 0.0001) {
 			if (e.getMotion().getY() + dir.y >= 0) {
 				e.fallDistance = 0;
@@ -94,7 +115,6 @@ public static void addMotion(SpellContext context, Entity e, Vector3 dir, double
 		}
 
 		AdditiveMotionHandler.addMotion(e, dir.x, dir.y, dir.z);
-
 	}
 
 }
@@ -22,6 +22,7 @@
 import vazkii.psi.api.spell.param.ParamEntity;
 import vazkii.psi.api.spell.param.ParamNumber;
 import vazkii.psi.api.spell.piece.PieceTrick;
+import vazkii.psi.api.spell.wrapper.EntityListWrapper;
 import vazkii.psi.common.network.MessageRegister;
 import vazkii.psi.common.network.message.MessageBlink;
 
@@ -68,6 +69,21 @@ public static void blink(SpellContext context, Entity e, double dist) throws Spe
 			throw new SpellRuntimeException(SpellRuntimeException.OUTSIDE_RADIUS);
 		}
 
+		applyBlink(context, e, dist);
+	}
+
+	/**
+	 * Blinks all the given entities, checking them all before moving any.
+	 * Players each get a single packet for their own offset, everything else is synced by the entity tracker.
+	 */
+	public static void blink(SpellContext context, EntityListWrapper targets, double dist) throws SpellRuntimeException {
+		context.verifyEntities(targets);
+		for (Entity e : targets) {
+			applyBlink(context, e, dist);
+		}
+	}
+
+	private static void applyBlink(SpellContext context, Entity e, double dist) {
 		Vector3d look = e.getLookVec();
 
 		double offX = look.x * dist;
@@ -8,8 +8,6 @@
  */
 package vazkii.psi.common.spell.trick.entity;
 
-import net.minecraft.entity.Entity;
-
 import vazkii.psi.api.internal.Vector3;
 import vazkii.psi.api.spell.EnumSpellStat;
 import vazkii.psi.api.spell.Spell;
@@ -60,9 +58,7 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		Vector3 directionVal = this.getParamValue(context, direction);
 		double speedVal = this.getParamValue(context, speed).doubleValue();
 
-		for (Entity e : targetVal) {
-			PieceTrickAddMotion.addMotion(context, e, directionVal, speedVal);
-		}
+		PieceTrickAddMotion.addMotion(context, targetVal, directionVal, speedVal);
 
 		return null;
 	}
@@ -8,8 +8,6 @@
  */
 package vazkii.psi.common.spell.trick.entity;
 
-import net.minecraft.entity.Entity;
-
 import vazkii.psi.api.spell.EnumSpellStat;
 import vazkii.psi.api.spell.Spell;
 import vazkii.psi.api.spell.SpellCompilationException;
@@ -54,9 +52,7 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		EntityListWrapper targetVal = this.getParamValue(context, target);
 		double distanceVal = this.getParamValue(context, distance).doubleValue();
 
-		for (Entity e : targetVal) {
-			PieceTrickBlink.blink(context, e, distanceVal);
-		}
+		PieceTrickBlink.blink(context, targetVal, distanceVal);
 
 		return null;
 	}
@@ -60,9 +60,10 @@ public Object execute(SpellContext context) throws SpellRuntimeException {
 		Vector3 positionVal = this.getParamValue(context, position);
 		double speedVal = this.getParamValue(context, speed).doubleValue();
 
+		context.verifyEntities(targetVal);
 		for (Entity e : targetVal) {
 			Vector3 vec = positionVal.copy().sub(Vector3.fromEntity(e));
-			PieceTrickAddMotion.addMotion(context, e, vec, speedVal);
+			PieceTrickAddMotion.applyMotion(e, PieceTrickAddMotion.getMotion(vec, speedVal));
 		}
 
 		return null;
@@ -0,0 +1,294 @@
+/*
+ * This class is distributed as part of the Psi Mod.
+ * Get the Source Code in github:
+ * https://github.com/Vazkii/Psi
+ *
+ * Psi is Open Source and distributed under the
+ * Psi License: https://psi.vazkii.net/license.php
+ */
+package vazkii.psi.client.gui.widget;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Checks {@link PieceSearchIndex} against the ranking the programmer's piece panel did before it had an index,
+ * copied below as it shipped apart from the word boundary checks, over a fixed catalog of pieces. Those used to
+ * look one character past the end of a match and could throw at the edges of the text, see
+ * {@link #boundariesAreNextToTheMatch()}.
+ */
+public class PieceSearchIndexTest {
+
+	private static final String[][] CATALOG = {
+			// name, description, output type, mod, input types...
+			{ "selector: caster", "returns the caster of the spell", "entity", "psi" },
+			{ "selector: nearby items", "gets a list of the items within the radius", "entity list", "psi", "vector", "number" },
+			{ "selector: nearby players", "gets a list of the players within the radius", "entity list", "psi", "vector", "number" },
+			{ "operator: vector sum", "adds two vectors together", "vector", "psi", "vector", "vector", "vector" },
+			{ "operator: vector multiply", "multiplies a vector by a number", "vector", "psi", "vector", "number" },
+			{ "operator: entity position", "gets the position of an entity", "vector", "psi", "entity" },
+			{ "operator: list index", "gets an entity from a list by its index", "entity", "psi", "entity list", "number" },
+			{ "operator: list size", "gets the number of entities in a list", "number", "psi", "entity list" },
+			{ "operator: closest to point", "gets the entity in a list closest to a point", "entity", "psi", "entity list", "vector" },
+			{ "trick: blink", "teleports an entity in the direction it's looking", "null", "psi", "entity", "number" },
+			{ "trick: add motion", "adds motion to target entity", "null", "psi", "entity", "vector", "number" },
+			{ "trick: break block", "breaks the block at the position", "null", "psi", "vector" },
+			{ "trick: smelt block sequence", "smelts a line of blocks", "null", "psi", "vector", "vector", "number" },
+			{ "constant: number", "a constant number", "number", "psi" },
+			{ "trick: conjure light", "conjures a light at the position", "null", "phi", "vector" },
+	};
+
+	private static final String[] QUERIES = {
+			"vector",
+			"vec",
+			"vector sum",
+			"list",
+			"entity list",
+			"number",
+			"num",
+			"ad",
+			"blink",
+			"trick",
+			"trick block",
+			"_sum",
+			"_block",
+			"_index",
+			"operator_",
+			"trick_",
+			"adds_",
+			"has:position",
+			"has:list entity",
+			"in:vector",
+			"in:entity",
+			"in:vector in:number",
+			"out:vector",
+			"out:entity",
+			"out:number list",
+			"in:",
+			"out:",
+			"@psi",
+			"@phi",
+			"@ps vector",
+			"@nothing",
+			"nothing",
+			"  vector   sum  ",
+			"in:vector _sequence",
+			"out:vector has:vectors",
+	};
+
+	@Test
+	public void ranksLikeThePanelDid() {
+		PieceSearchIndex index = buildIndex();
+		for (String query : QUERIES) {
+			int[] ranks = index.rank(query);
+			for (int i = 0; i < CATALOG.length; i++) {
+				Assert.assertEquals("Rank of " + CATALOG[i][0] + " for \"" + query + "\"", oldRanking(query, CATALOG[i]), Math.max(ranks[i], 0));
+			}
+		}
+	}
+
+	@Test
+	public void ordersLikeThePanelDid() {
+		PieceSearchIndex index = buildIndex();
+		for (String query : QUERIES) {
+			int[] ranks = index.rank(query);
+			int[] oldRanks = new int[CATALOG.length];
+			for (int i = 0; i < CATALOG.length; i++) {
+				oldRanks[i] = oldRanking(query, CATALOG[i]);
+			}
+			Assert.assertEquals("Order for \"" + query + "\"", order(oldRanks), order(ranks));
+		}
+	}
+
+	@Test
+	public void cachedTermsGiveTheSameRanks() {
+		PieceSearchIndex index = buildIndex();
+		for (String query : QUERIES) {
+			int[] first = index.rank(query);
+			int[] second = index.rank(query);
+			Assert.assertArrayEquals("Ranks for \"" + query + "\" when cached", first, second);
+		}
+	}
+
+	private static PieceSearchIndex buildIndex() {
+		int size = CATALOG.length;
+		String[] names = new String[size];
+		String[] descs = new String[size];
+		String[][] inTypes = new String[size][];
+		String[] outTypes = new String[size];
+		String[] mods = new String[size];
+		for (int i = 0; i < size; i++) {
+			String[] piece = CATALOG[i];
+			names[i] = piece[0];
+			descs[i] = piece[1];
+			outTypes[i] = piece[2];
+			mods[i] = piece[3];
+			inTypes[i] = new String[piece.length - 4];
+			System.arraycopy(piece, 4, inTypes[i], 0, inTypes[i].length);
+		}
+		return new PieceSearchIndex(names.clone(), names, descs, inTypes, outTypes, mods);
+	}
+
+	/**
+	 * The visible pieces, best first, the same way the panel sorts them.
+	 */
+	private static List<String> order(int[] ranks) {
+		List<Integer> visible = new ArrayList<>();
+		for (int i = 0; i < ranks.length; i++) {
+			if (ranks[i] > 0) {
+				visible.add(i);
+			}
+		}
+		visible.sort(Comparator.comparingInt((Integer i) -> -ranks[i]).thenComparing(i -> CATALOG[i][0]));
+
+		List<String> names = new ArrayList<>();
+		for (int i : visible) {
+			names.add(CATALOG[i][0]);
+		}
+		return names;
+	}
+
+	@Test
+	public void boundariesAreNextToTheMatch() {
+		// A word ending right after the match counts as a whole word
+		Assert.assertEquals(6 * 5 / 2, rankTextToken("vector sum", "vector"));
+		Assert.assertEquals(6 * 4 / 2, rankTextToken("vectors", "vector"));
+		Assert.assertEquals(6 * 2, rankTextToken("vector sum", "vector_"));
+		Assert.assertEquals(6, rankTextToken("vectors", "vector_"));
+
+		// Matches of the whole text used to throw
+		Assert.assertEquals(6 * 3 / 2, rankTextToken("vector", "_vector"));
+		Assert.assertEquals(5 * 2, rankTextToken("vecto", "vecto_"));
+		Assert.assertEquals(5, rankTextToken("vector", "vecto_"));
+
+		PieceSearchIndex index = buildIndex();
+		Assert.assertTrue("out:_vector", index.rank("out:_vector")[3] > 0);
+		Assert.assertTrue("in:entit_", index.rank("in:entit_")[5] > 0);
+	}
+
+	// The ranking as it was in the piece panel, working on the catalog instead of a SpellPiece, with the boundary fix
+
+	private static int oldRanking(String token, String[] p) {
+		int rank = 0;
+		String name = p[0];
+		String desc = p[1];
+
+		for (String nameToken : token.split("\\s+")) {
+			if (nameToken.isEmpty()) {
+				continue;
+			}
+
+			if (nameToken.startsWith("in:")) {
+				String clippedToken = nameToken.substring(3);
+				if (clippedToken.isEmpty()) {
+					continue;
+				}
+
+				int maxRank = 0;
+				for (int i = 4; i < p.length; i++) {
+					String type = p[i];
+					maxRank = Math.max(maxRank, rankTextToken(type, clippedToken));
+				}
+
+				if (maxRank <= 0) {
+					return 0;
+				}
+				rank += maxRank;
+			} else if (nameToken.startsWith("out:")) {
+				String clippedToken = nameToken.substring(4);
+				if (clippedToken.isEmpty()) {
+					continue;
+				}
+
+				String type = p[2];
+
+				if (rankTextToken(type, clippedToken) <= 0) {
+					return 0;
+				}
+				rank += rankTextToken(type, clippedToken);
+			} else if (nameToken.startsWith("@")) {
+				String clippedToken = nameToken.substring(1);
+				if (clippedToken.isEmpty()) {
+					continue;
+				}
+
+				String mod = p[3];
+				if (mod != null) {
+					int modRank = rankTextToken(mod, clippedToken);
+					if (modRank <= 0) {
+						return 0;
+					}
+					rank += modRank;
+				} else {
+					return 0;
+				}
+			} else {
+				int nameRank = rankTextToken(name, nameToken);
+				rank += nameRank;
+				if (nameRank <= 0 && rankTextToken(desc, nameToken) <= 0) {
+					return 0;
+				} else {
+					rank += rankTextToken(desc, nameToken) / 2;
+				}
+			}
+		}
+
+		return rank;
+	}
+
+	private static int rankTextToken(String haystack, String token) {
+		if (token.isEmpty()) {
+			return 0;
+		}
+
+		if (token.startsWith("_")) {
+			String clippedToken = token.substring(1);
+			if (clippedToken.isEmpty()) {
+				return 0;
+			}
+			if (haystack.endsWith(clippedToken)) {
+				int before = haystack.length() - clippedToken.length() - 1;
+				if (before < 0 || !Character.isLetterOrDigit(haystack.charAt(before))) {
+					return clippedToken.length() * 3 / 2;
+				}
+				return clippedToken.length();
+			}
+		} else if (token.endsWith("_")) {
+			String clippedToken = token.substring(0, token.length() - 1);
+			if (clippedToken.isEmpty()) {
+				return 0;
+			}
+			if (haystack.startsWith(clippedToken)) {
+				if (haystack.length() == clippedToken.length() || !Character.isLetterOrDigit(haystack.charAt(clippedToken.length()))) {
+					return clippedToken.length() * 2;
+				}
+				return clippedToken.length();
+			}
+		} else {
+			if (token.startsWith("has:")) {
+				token = token.substring(4);
+			}
+
+			int idx = haystack.indexOf(token);
+			if (idx >= 0) {
+				int multiplier = 2;
+				if (idx == 0 || !Character.isLetterOrDigit(haystack.charAt(idx - 1))) {
+					multiplier += 2;
+				}
+				int after = idx + token.length();
+				if (after == haystack.length() || !Character.isLetterOrDigit(haystack.charAt(after))) {
+					multiplier++;
+				}
+
+				return token.length() * multiplier / 2;
+			}
+		}
+
+		return 0;
+	}
+
+}